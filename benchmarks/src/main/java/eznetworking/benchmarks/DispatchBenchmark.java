@@ -0,0 +1,94 @@
+package eznetworking.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import eznetworking.client.Client;
+import eznetworking.packet.Packet;
+import eznetworking.server.Server;
+import eznetworking.server.connection.Connection;
+import eznetworking.transport.InProcessAddress;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+    @Param({ "1", "16", "256" })
+    public int listeners;
+
+    private Server server;
+    private Client client;
+    private Connection connection;
+    private Packet packet;
+    private byte[] customData;
+    private final AtomicLong dispatched = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        InProcessAddress address = InProcessAddress.of("dispatch-benchmark-" + listeners);
+        server = new Server(address);
+        server.setPassByReference(true);
+        server.start();
+        client = new Client(address);
+        for (int i = 0; i < listeners; i++) {
+            client.addPacketReceivedListener("Header-" + i, (s, p) -> dispatched.incrementAndGet());
+            client.addCustomReceivedListener(3 + i, (s, t, d) -> dispatched.incrementAndGet());
+        }
+        if (!client.connect(true)) {
+            throw new IllegalStateException("Could not connect to in-process server");
+        }
+        while (server.getClients().length == 0) {
+            Thread.sleep(10);
+        }
+        connection = server.getClients()[0];
+        packet = Packet.create("Header-" + (listeners - 1), "payload");
+        customData = new byte[64];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.disconnect();
+        server.stop();
+        server.disconnectClients(server.getClients());
+    }
+
+    @Benchmark
+    public long dispatchPacket() {
+        long target = dispatched.get() + 1;
+        connection.sendPacket(packet);
+        return awaitDispatched(target);
+    }
+
+    @Benchmark
+    public long dispatchCustom() {
+        long target = dispatched.get() + 1;
+        connection.sendCustom(2 + listeners, customData);
+        return awaitDispatched(target);
+    }
+
+    private long awaitDispatched(long target) {
+        long current;
+        while ((current = dispatched.get()) < target) {
+            Thread.onSpinWait();
+        }
+        return current;
+    }
+}
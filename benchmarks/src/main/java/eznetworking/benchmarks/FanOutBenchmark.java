@@ -0,0 +1,82 @@
+package eznetworking.benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import eznetworking.client.Client;
+import eznetworking.server.Server;
+import eznetworking.server.connection.Connection;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FanOutBenchmark {
+
+    @Param({ "1", "16", "64" })
+    public int connections;
+
+    @Param({ "64" })
+    public int size;
+
+    private Server server;
+    private ArrayList<Client> clients = new ArrayList<>();
+    private byte[] data;
+    private final LongAdder received = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        int port = Ports.findFree();
+        server = new Server(port);
+        server.start();
+        for (int i = 0; i < connections; i++) {
+            Client client = new Client("localhost", port);
+            client.addBytesReceivedListener((s, d) -> received.increment());
+            if (!client.connect(true)) {
+                throw new IllegalStateException("Could not connect to loopback server");
+            }
+            clients.add(client);
+        }
+        while (server.getClients().length < connections) {
+            Thread.sleep(10);
+        }
+        data = new byte[size];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (Client client : clients) {
+            client.disconnect();
+        }
+        server.stop();
+        server.disconnectClients(server.getClients());
+    }
+
+    @Benchmark
+    public int broadcast() {
+        int sent = 0;
+        for (Connection c : server) {
+            if (c.sendBytes(data)) {
+                sent++;
+            }
+        }
+        return sent;
+    }
+}
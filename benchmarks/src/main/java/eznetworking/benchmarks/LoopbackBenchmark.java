@@ -0,0 +1,78 @@
+package eznetworking.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import eznetworking.client.Client;
+import eznetworking.packet.Packet;
+import eznetworking.server.Server;
+
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoopbackBenchmark {
+
+    @Param({ "64", "4096" })
+    public int size;
+
+    private Server server;
+    private Client client;
+    private byte[] data;
+    private Packet ping;
+    private final LongAdder received = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        int port = Ports.findFree();
+        server = new Server(port);
+        server.addBytesReceivedListener((s, c, d) -> received.add(d.length));
+        server.addPacketReceivedListener("Ping", (s, c, p) -> c.sendPacket(Packet.create(p.getReplyHeader(), "Pong")));
+        server.start();
+        client = new Client("localhost", port);
+        if (!client.connect(true)) {
+            throw new IllegalStateException("Could not connect to loopback server");
+        }
+        while (server.getClients().length == 0) {
+            Thread.sleep(10);
+        }
+        data = new byte[size];
+        ping = Packet.create("Ping", new Payload(size / 4));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.disconnect();
+        server.stop();
+        server.disconnectClients(server.getClients());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public boolean sendBytes() {
+        return client.sendBytes(data);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Packet roundTrip() throws InterruptedException, TimeoutException {
+        return client.sendPacket(ping, 1000);
+    }
+}
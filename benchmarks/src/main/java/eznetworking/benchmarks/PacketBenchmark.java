@@ -0,0 +1,55 @@
+package eznetworking.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import eznetworking.packet.Packet;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketBenchmark {
+
+    @Param({ "16", "1024" })
+    public int size;
+
+    private Payload payload;
+    private Packet packet;
+
+    @Setup
+    public void setup() {
+        payload = new Payload(size / 4);
+        packet = Packet.create("Benchmark", payload);
+    }
+
+    @Benchmark
+    public Packet create() {
+        return Packet.create("Benchmark", payload);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Packet createContended() {
+        return Packet.create("Benchmark", payload);
+    }
+
+    @Benchmark
+    public Payload unpack() {
+        return packet.unpack(Payload.class);
+    }
+}
@@ -0,0 +1,32 @@
+package eznetworking.benchmarks;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+public class Payload implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long timestamp;
+    private final String name;
+    private final int[] values;
+
+    public Payload(int size) {
+        this.timestamp = System.nanoTime();
+        this.name = "payload-" + size;
+        this.values = new int[size];
+        Arrays.fill(values, size);
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int[] getValues() {
+        return values;
+    }
+}
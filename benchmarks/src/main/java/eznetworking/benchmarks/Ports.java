@@ -0,0 +1,17 @@
+package eznetworking.benchmarks;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+public final class Ports {
+
+    public static int findFree() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            socket.setReuseAddress(true);
+            return socket.getLocalPort();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package eznetworking.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import eznetworking.util.Serializer;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    @Param({ "16", "1024", "65536" })
+    public int size;
+
+    private Payload payload;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        payload = new Payload(size / 4);
+        bytes = Serializer.serialize(payload);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return Serializer.serialize(payload);
+    }
+
+    @Benchmark
+    public Payload deserialize() {
+        return Serializer.deserialize(bytes);
+    }
+}
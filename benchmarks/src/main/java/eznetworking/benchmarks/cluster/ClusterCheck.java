@@ -0,0 +1,178 @@
+package eznetworking.benchmarks.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import eznetworking.benchmarks.Ports;
+import eznetworking.client.Client;
+import eznetworking.packet.Packet;
+import eznetworking.server.Server;
+import eznetworking.server.cluster.ClusterNode;
+import eznetworking.server.connection.Connection;
+
+public class ClusterCheck {
+
+    private static final String HEADER = "Cluster.Check";
+    private static final String GROUP_ALIAS = "workers";
+    private static final int GROUP = 7;
+    private static final long TIMEOUT = 10000;
+
+    private final int nodeCount;
+    private final int[] ports;
+    private final Server[] servers;
+    private final ClusterNode[] nodes;
+    private final Client[] clients;
+    private final List<Set<String>> received = new ArrayList<>();
+    private final List<String> failures = new ArrayList<>();
+
+    public ClusterCheck(int nodeCount) {
+        if (nodeCount < 2) {
+            throw new IllegalArgumentException();
+        }
+        this.nodeCount = nodeCount;
+        this.ports = new int[nodeCount];
+        this.servers = new Server[nodeCount];
+        this.nodes = new ClusterNode[nodeCount];
+        this.clients = new Client[nodeCount];
+    }
+
+    public static void main(String[] args) throws Exception {
+        ClusterCheck check = new ClusterCheck((args.length > 0) ? Integer.parseInt(args[0]) : 3);
+        boolean passed;
+        try {
+            passed = check.run();
+        } finally {
+            check.shutdown();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    public boolean run() throws InterruptedException {
+        int[] clusterPorts = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            ports[i] = Ports.findFree();
+            servers[i] = new Server(ports[i]);
+            servers[i].setRelayEnabled(true);
+            servers[i].addGroupAlias(GROUP_ALIAS, GROUP);
+            servers[i].start();
+            clusterPorts[i] = Ports.findFree();
+            nodes[i] = new ClusterNode("node-" + i, servers[i], clusterPorts[i]);
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            for (int j = 0; j < nodeCount; j++) {
+                if (i != j) {
+                    nodes[i].addPeer("node-" + j, "localhost", clusterPorts[j]);
+                }
+            }
+            nodes[i].start();
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            Set<String> inbox = ConcurrentHashMap.newKeySet();
+            received.add(inbox);
+            clients[i] = new Client("localhost", ports[i]);
+            clients[i].addPacketReceivedListener(HEADER, String.class, inbox::add);
+            clients[i].connect(true);
+        }
+        check("directories converge", () -> {
+            for (ClusterNode node : nodes) {
+                if (node.getDirectory().getConnectionCount() != nodeCount - 1) {
+                    return false;
+                }
+            }
+            return true;
+        });
+        check("relay is announced", () -> {
+            for (Client client : clients) {
+                if (!client.isRelayAvailable()) {
+                    return false;
+                }
+            }
+            return true;
+        });
+
+        for (int i = 0; i < nodeCount; i++) {
+            for (int j = 0; j < nodeCount; j++) {
+                if (i != j) {
+                    clients[i].sendPacket(Packet.create(HEADER, "node-" + i, connection(j).getId(), "direct " + i + "->" + j));
+                }
+            }
+        }
+        for (int j = 0; j < nodeCount; j++) {
+            int target = j;
+            check("direct relay to node-" + j, () -> received.get(target).size() == nodeCount - 1);
+        }
+
+        connection(nodeCount - 1).setGroup(GROUP);
+        check("group change propagates", () -> nodes[0].getDirectory().getNodes(GROUP).contains("node-" + (nodeCount - 1)));
+        clients[0].sendPacket(Packet.create(HEADER, "node-0", GROUP_ALIAS, "group"));
+        check("group relay", () -> received.get(nodeCount - 1).contains("group"));
+
+        nodes[0].broadcast(Packet.create(HEADER, "broadcast"));
+        check("broadcast", () -> {
+            for (Set<String> inbox : received) {
+                if (!inbox.contains("broadcast")) {
+                    return false;
+                }
+            }
+            return true;
+        });
+
+        String leaving = connection(1).getId();
+        clients[1].disconnect();
+        check("leave propagates", () -> nodes[0].getDirectory().getNode(leaving) == null);
+
+        String last = "node-" + (nodeCount - 1);
+        nodes[nodeCount - 1].stop();
+        check("stopped node is dropped", () -> !nodes[0].getDirectory().getNodes(GROUP).contains(last));
+        nodes[nodeCount - 1].start();
+        check("restarted node resyncs", () -> nodes[0].getDirectory().getNodes(GROUP).contains(last));
+
+        for (String failure : failures) {
+            System.err.println("FAILED: " + failure);
+        }
+        System.out.println((failures.isEmpty() ? "PASSED" : "FAILED") + " (" + nodeCount + " nodes)");
+        return failures.isEmpty();
+    }
+
+    public void shutdown() {
+        for (Client client : clients) {
+            if (client != null) {
+                client.disconnect();
+            }
+        }
+        for (ClusterNode node : nodes) {
+            if (node != null) {
+                node.stop();
+            }
+        }
+        for (Server server : servers) {
+            if (server != null) {
+                server.stop();
+            }
+        }
+    }
+
+    private Connection connection(int node) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (servers[node].getClients().length == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return servers[node].getClients()[0];
+    }
+
+    private void check(String name, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                failures.add(name);
+                return;
+            }
+            Thread.sleep(20);
+        }
+        System.out.println("ok: " + name);
+    }
+
+}
@@ -0,0 +1,187 @@
+package eznetworking.benchmarks.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class LoadConfig {
+
+    private String host = null;
+    private int port = 47474;
+    private int connections = 1000;
+    private int rampSeconds = 10;
+    private long durationSeconds = 60;
+    private int rate = 10000;
+    private int payloadSize = 64;
+    private double requestRatio = 0.1;
+    private int bytesWeight = 0;
+    private int packetWeight = 100;
+    private int customWeight = 0;
+    private int senders = 4;
+    private int sampleSeconds = 5;
+    private String report = "load-report.json";
+
+    public static LoadConfig parse(String[] args) {
+        LoadConfig config = new LoadConfig();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Invalid argument: " + arg);
+            }
+            String value = args[++i];
+            switch (arg.substring(2)) {
+            case "host":
+                config.host = value;
+                break;
+            case "port":
+                config.port = Integer.parseInt(value);
+                break;
+            case "connections":
+                config.connections = Integer.parseInt(value);
+                break;
+            case "ramp":
+                config.rampSeconds = Integer.parseInt(value);
+                break;
+            case "duration":
+                config.durationSeconds = Long.parseLong(value);
+                break;
+            case "rate":
+                config.rate = Integer.parseInt(value);
+                break;
+            case "payload":
+                config.payloadSize = Integer.parseInt(value);
+                break;
+            case "request-ratio":
+                config.requestRatio = Double.parseDouble(value);
+                break;
+            case "mix":
+                config.parseMix(value);
+                break;
+            case "senders":
+                config.senders = Integer.parseInt(value);
+                break;
+            case "sample":
+                config.sampleSeconds = Integer.parseInt(value);
+                break;
+            case "report":
+                config.report = value;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        config.validate();
+        return config;
+    }
+
+    private void parseMix(String value) {
+        bytesWeight = 0;
+        packetWeight = 0;
+        customWeight = 0;
+        for (String part : value.split(",")) {
+            String[] entry = part.split("[:=]");
+            if (entry.length != 2) {
+                throw new IllegalArgumentException("Invalid mix: " + value);
+            }
+            int weight = Integer.parseInt(entry[1].trim());
+            switch (entry[0].trim()) {
+            case "bytes":
+                bytesWeight = weight;
+                break;
+            case "packet":
+                packetWeight = weight;
+                break;
+            case "custom":
+                customWeight = weight;
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid mix: " + value);
+            }
+        }
+    }
+
+    private void validate() {
+        if (port < 1 || port > 65535 || connections < 1 || rampSeconds < 0 || durationSeconds < 1 || rate < 1 || payloadSize < 0 || requestRatio < 0
+                || requestRatio > 1 || bytesWeight < 0 || packetWeight < 0 || customWeight < 0 || bytesWeight + packetWeight + customWeight == 0
+                || senders < 1 || sampleSeconds < 1) {
+            throw new IllegalArgumentException("Invalid load configuration");
+        }
+    }
+
+    public Map<String, Object> toMap() {
+        LinkedHashMap<String, Object> result = new LinkedHashMap<>();
+        result.put("host", (host != null) ? host : "embedded");
+        result.put("port", port);
+        result.put("connections", connections);
+        result.put("rampSeconds", rampSeconds);
+        result.put("durationSeconds", durationSeconds);
+        result.put("rate", rate);
+        result.put("payloadSize", payloadSize);
+        result.put("requestRatio", requestRatio);
+        result.put("bytesWeight", bytesWeight);
+        result.put("packetWeight", packetWeight);
+        result.put("customWeight", customWeight);
+        result.put("senders", senders);
+        result.put("sampleSeconds", sampleSeconds);
+        return result;
+    }
+
+    public boolean isEmbedded() {
+        return host == null;
+    }
+
+    public String getHost() {
+        return isEmbedded() ? "localhost" : host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public int getRampSeconds() {
+        return rampSeconds;
+    }
+
+    public long getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public int getPayloadSize() {
+        return payloadSize;
+    }
+
+    public double getRequestRatio() {
+        return requestRatio;
+    }
+
+    public int getBytesWeight() {
+        return bytesWeight;
+    }
+
+    public int getPacketWeight() {
+        return packetWeight;
+    }
+
+    public int getCustomWeight() {
+        return customWeight;
+    }
+
+    public int getSenders() {
+        return senders;
+    }
+
+    public int getSampleSeconds() {
+        return sampleSeconds;
+    }
+
+    public String getReport() {
+        return report;
+    }
+}
@@ -0,0 +1,279 @@
+package eznetworking.benchmarks.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import eznetworking.client.Client;
+import eznetworking.metrics.LatencyHistogram;
+import eznetworking.packet.Packet;
+import eznetworking.server.Server;
+
+public class LoadGenerator {
+
+    public static final String MESSAGE_HEADER = "Load.Message";
+    public static final String REQUEST_HEADER = "Load.Request";
+    public static final String REPLY_HEADER = "Load.Reply";
+    public static final int CUSTOM_TYPE = 100;
+
+    private static final double MICROS = 1000.0;
+
+    private final LoadConfig config;
+    private final LoadReport report;
+
+    private final AtomicReferenceArray<Client> clients;
+    private final AtomicInteger connected = new AtomicInteger();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder replies = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+    private final LongAdder connectFailures = new LongAdder();
+    private final LongAdder disconnects = new LongAdder();
+
+    private final LatencyHistogram roundTrips = new LatencyHistogram();
+    private final LatencyHistogram oneWay = new LatencyHistogram();
+    private final LatencyHistogram connectTimes = new LatencyHistogram();
+    private final LatencyHistogram totalRoundTrips = new LatencyHistogram();
+    private final LatencyHistogram totalOneWay = new LatencyHistogram();
+    private final LatencyHistogram totalConnectTimes = new LatencyHistogram();
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    private Server server;
+    private volatile boolean running;
+    private long startNanos;
+    private long[] lastCounts = new long[4];
+    private int peakThreads;
+    private long peakHeap;
+
+    public LoadGenerator(LoadConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException();
+        }
+        this.config = config;
+        this.report = new LoadReport(config.toMap());
+        this.clients = new AtomicReferenceArray<>(config.getConnections());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config;
+        try {
+            config = LoadConfig.parse(args);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println("Usage: LoadGenerator [--host h] [--port p] [--connections n] [--ramp s] [--duration s] [--rate msg/s] [--payload bytes]");
+            System.err.println("                     [--request-ratio 0..1] [--mix bytes:w,packet:w,custom:w] [--senders n] [--sample s] [--report file]");
+            System.err.println("Without --host an embedded server is started. A remote server has to answer '" + REQUEST_HEADER + "' packets with a '"
+                    + REPLY_HEADER + "' packet carrying the same payload.");
+            System.exit(1);
+            return;
+        }
+        new LoadGenerator(config).run();
+        System.exit(0);
+    }
+
+    public void run() throws Exception {
+        running = true;
+        if (config.isEmbedded()) {
+            startServer();
+        }
+        startNanos = System.nanoTime();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(this::sample, config.getSampleSeconds(), config.getSampleSeconds(), TimeUnit.SECONDS);
+        Thread ramp = new Thread(this::ramp, "load-ramp");
+        ramp.start();
+        ArrayList<Thread> senders = new ArrayList<>();
+        for (int i = 0; i < config.getSenders(); i++) {
+            Thread sender = new Thread(this::send, "load-sender-" + i);
+            sender.setDaemon(true);
+            sender.start();
+            senders.add(sender);
+        }
+        TimeUnit.SECONDS.sleep(config.getRampSeconds() + config.getDurationSeconds());
+        running = false;
+        ramp.join();
+        for (Thread sender : senders) {
+            sender.join();
+        }
+        sampler.shutdown();
+        sampler.awaitTermination(config.getSampleSeconds(), TimeUnit.SECONDS);
+        sample();
+        report.setSummary(summary());
+        report.write(Paths.get(config.getReport()));
+        for (int i = 0; i < clients.length(); i++) {
+            Client client = clients.get(i);
+            if (client != null) {
+                client.disconnect();
+            }
+        }
+        if (server != null) {
+            server.stop();
+            server.disconnectClients(server.getClients());
+        }
+    }
+
+    private void startServer() {
+        server = new Server(config.getPort());
+        server.addPacketReceivedListener(REQUEST_HEADER, LoadMessage.class, (c, m) -> c.sendPacket(Packet.create(REPLY_HEADER, m)));
+        server.addPacketReceivedListener(MESSAGE_HEADER, LoadMessage.class, (c, m) -> {
+            received.increment();
+            record(oneWay, totalOneWay, System.nanoTime() - m.getSentNanos());
+        });
+        server.addBytesReceivedListener((s, c, d) -> {
+            received.increment();
+            record(oneWay, totalOneWay, System.nanoTime() - ByteBuffer.wrap(d).getLong());
+        });
+        server.addCustomReceivedListener(CUSTOM_TYPE, (s, c, t, d) -> {
+            received.increment();
+            record(oneWay, totalOneWay, System.nanoTime() - ByteBuffer.wrap(d).getLong());
+        });
+        if (!server.start()) {
+            throw new IllegalStateException("Could not start embedded server on port " + config.getPort());
+        }
+    }
+
+    private void ramp() {
+        long interval = (config.getRampSeconds() > 0) ? TimeUnit.SECONDS.toNanos(config.getRampSeconds()) / config.getConnections() : 0;
+        long next = System.nanoTime();
+        for (int i = 0; i < config.getConnections() && running; i++) {
+            pace(next);
+            next += interval;
+            Client client = new Client(config.getHost(), config.getPort());
+            client.addPacketReceivedListener(REPLY_HEADER, LoadMessage.class, (m) -> {
+                replies.increment();
+                record(roundTrips, totalRoundTrips, System.nanoTime() - m.getSentNanos());
+            });
+            client.addClientDisconnectedListener((c) -> disconnects.increment());
+            long started = System.nanoTime();
+            if (client.connect(true)) {
+                record(connectTimes, totalConnectTimes, System.nanoTime() - started);
+                int index = connected.get();
+                clients.set(index, client);
+                connected.set(index + 1);
+            } else {
+                connectFailures.increment();
+            }
+        }
+    }
+
+    private void send() {
+        long interval = Math.max(1, TimeUnit.SECONDS.toNanos(1) * config.getSenders() / config.getRate());
+        int total = config.getBytesWeight() + config.getPacketWeight() + config.getCustomWeight();
+        long next = System.nanoTime();
+        while (running) {
+            pace(next);
+            int count = connected.get();
+            if (count > 0) {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Client client = clients.get(random.nextInt(count));
+                int pick = random.nextInt(total);
+                boolean success;
+                if (pick < config.getBytesWeight()) {
+                    success = client.sendBytes(stamped(next));
+                } else if (pick < config.getBytesWeight() + config.getPacketWeight()) {
+                    boolean request = random.nextDouble() < config.getRequestRatio();
+                    success = client.sendPacket(Packet.create(request ? REQUEST_HEADER : MESSAGE_HEADER, new LoadMessage(next, config.getPayloadSize())));
+                    if (request && success) {
+                        requests.increment();
+                    }
+                } else {
+                    success = client.sendCustom(CUSTOM_TYPE, stamped(next));
+                }
+                if (success) {
+                    sent.increment();
+                } else {
+                    sendFailures.increment();
+                }
+            }
+            next += interval;
+        }
+    }
+
+    private byte[] stamped(long nanos) {
+        return ByteBuffer.allocate(Math.max(Long.BYTES, config.getPayloadSize())).putLong(nanos).array();
+    }
+
+    private static void pace(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static void record(LatencyHistogram interval, LatencyHistogram total, long nanos) {
+        interval.record(nanos);
+        total.record(nanos);
+    }
+
+    private synchronized void sample() {
+        try {
+            double elapsed = (System.nanoTime() - startNanos) / 1e9;
+            long[] counts = { sent.sum(), received.sum(), replies.sum(), sendFailures.sum() };
+            double seconds = config.getSampleSeconds();
+            int threadCount = threads.getThreadCount();
+            long heapUsed = memory.getHeapMemoryUsage().getUsed();
+            peakThreads = Math.max(peakThreads, threadCount);
+            peakHeap = Math.max(peakHeap, heapUsed);
+            LinkedHashMap<String, Object> sample = new LinkedHashMap<>();
+            sample.put("elapsedSeconds", elapsed);
+            sample.put("connections", connected.get() - disconnects.intValue());
+            sample.put("sent", counts[0] - lastCounts[0]);
+            sample.put("received", counts[1] - lastCounts[1]);
+            sample.put("replies", counts[2] - lastCounts[2]);
+            sample.put("sendFailures", counts[3] - lastCounts[3]);
+            sample.put("sendThroughput", (counts[0] - lastCounts[0]) / seconds);
+            sample.put("receiveThroughput", (counts[1] - lastCounts[1] + counts[2] - lastCounts[2]) / seconds);
+            sample.put("roundTripMicros", LoadReport.histogram(roundTrips.snapshotAndReset(), MICROS));
+            sample.put("oneWayMicros", LoadReport.histogram(oneWay.snapshotAndReset(), MICROS));
+            sample.put("connectMicros", LoadReport.histogram(connectTimes.snapshotAndReset(), MICROS));
+            sample.put("threads", threadCount);
+            sample.put("heapUsed", heapUsed);
+            sample.put("heapCommitted", memory.getHeapMemoryUsage().getCommitted());
+            lastCounts = counts;
+            report.addSample(sample);
+            report.write(Paths.get(config.getReport()));
+            System.out.println(String.format("[%8.1fs] connections=%d sent/s=%.0f received/s=%.0f rtt.p99=%sus threads=%d heap=%dMB", elapsed,
+                    sample.get("connections"), sample.get("sendThroughput"), sample.get("receiveThroughput"),
+                    ((Map<?, ?>) sample.get("roundTripMicros")).get("p99"), threadCount, heapUsed >> 20));
+        } catch (Exception ex) {
+            System.err.println("Sampling failed: " + ex);
+        }
+    }
+
+    private Map<String, Object> summary() {
+        double elapsed = (System.nanoTime() - startNanos) / 1e9;
+        LinkedHashMap<String, Object> summary = new LinkedHashMap<>();
+        summary.put("elapsedSeconds", elapsed);
+        summary.put("connected", connected.get());
+        summary.put("connectFailures", connectFailures.sum());
+        summary.put("disconnects", disconnects.sum());
+        summary.put("sent", sent.sum());
+        summary.put("requests", requests.sum());
+        summary.put("received", received.sum());
+        summary.put("replies", replies.sum());
+        summary.put("sendFailures", sendFailures.sum());
+        summary.put("sendThroughput", sent.sum() / elapsed);
+        summary.put("roundTripMicros", LoadReport.histogram(totalRoundTrips.snapshot(), MICROS));
+        summary.put("oneWayMicros", LoadReport.histogram(totalOneWay.snapshot(), MICROS));
+        summary.put("connectMicros", LoadReport.histogram(totalConnectTimes.snapshot(), MICROS));
+        summary.put("peakThreads", peakThreads);
+        summary.put("peakHeapUsed", peakHeap);
+        return summary;
+    }
+}
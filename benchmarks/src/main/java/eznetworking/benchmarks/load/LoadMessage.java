@@ -0,0 +1,24 @@
+package eznetworking.benchmarks.load;
+
+import java.io.Serializable;
+
+public class LoadMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long sentNanos;
+    private final byte[] padding;
+
+    public LoadMessage(long sentNanos, int size) {
+        this.sentNanos = sentNanos;
+        this.padding = new byte[size];
+    }
+
+    public long getSentNanos() {
+        return sentNanos;
+    }
+
+    public byte[] getPadding() {
+        return padding;
+    }
+}
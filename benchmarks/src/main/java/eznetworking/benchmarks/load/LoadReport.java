@@ -0,0 +1,110 @@
+package eznetworking.benchmarks.load;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import eznetworking.metrics.HistogramSnapshot;
+
+public class LoadReport {
+
+    private final Map<String, Object> config;
+    private final List<Map<String, Object>> samples = new ArrayList<>();
+    private Map<String, Object> summary = new LinkedHashMap<>();
+
+    public LoadReport(Map<String, Object> config) {
+        this.config = config;
+    }
+
+    public synchronized void addSample(Map<String, Object> sample) {
+        samples.add(sample);
+    }
+
+    public synchronized void setSummary(Map<String, Object> summary) {
+        this.summary = summary;
+    }
+
+    public synchronized void write(Path path) throws IOException {
+        LinkedHashMap<String, Object> root = new LinkedHashMap<>();
+        root.put("config", config);
+        root.put("summary", summary);
+        root.put("samples", samples);
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            StringBuilder builder = new StringBuilder();
+            append(builder, root);
+            writer.write(builder.toString());
+            writer.write('\n');
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public static Map<String, Object> histogram(HistogramSnapshot snapshot, double scale) {
+        LinkedHashMap<String, Object> result = new LinkedHashMap<>();
+        result.put("count", snapshot.getCount());
+        result.put("min", snapshot.getMin() / scale);
+        result.put("p50", snapshot.getP50() / scale);
+        result.put("p90", snapshot.getValueAtPercentile(90) / scale);
+        result.put("p99", snapshot.getP99() / scale);
+        result.put("p999", snapshot.getP999() / scale);
+        result.put("max", snapshot.getMax() / scale);
+        result.put("mean", snapshot.getMean() / scale);
+        return result;
+    }
+
+    private static void append(StringBuilder builder, Object value) {
+        if (value == null) {
+            builder.append("null");
+        } else if (value instanceof Map) {
+            builder.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    builder.append(',');
+                }
+                first = false;
+                append(builder, String.valueOf(entry.getKey()));
+                builder.append(':');
+                append(builder, entry.getValue());
+            }
+            builder.append('}');
+        } else if (value instanceof Collection) {
+            builder.append('[');
+            boolean first = true;
+            for (Object element : (Collection<?>) value) {
+                if (!first) {
+                    builder.append(',');
+                }
+                first = false;
+                append(builder, element);
+            }
+            builder.append(']');
+        } else if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            builder.append(Double.isFinite(d) ? String.format(Locale.ROOT, "%.3f", d) : "null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            builder.append(value);
+        } else {
+            builder.append('"');
+            for (char c : value.toString().toCharArray()) {
+                if (c == '"' || c == '\\') {
+                    builder.append('\\').append(c);
+                } else if (c < 0x20) {
+                    builder.append(String.format("\\u%04x", (int) c));
+                } else {
+                    builder.append(c);
+                }
+            }
+            builder.append('"');
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package eznetworking.capture;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class TrafficReader implements Closeable {
+
+    private final DataInputStream input;
+    private final long startedMillis;
+    private final List<String> streams = new ArrayList<>();
+    private long timestamp;
+
+    public TrafficReader(Path path) throws IOException {
+        this(Files.newInputStream(path));
+    }
+
+    public TrafficReader(InputStream inputStream) throws IOException {
+        if (inputStream == null) {
+            throw new IllegalArgumentException();
+        }
+        this.input = new DataInputStream(new BufferedInputStream(inputStream, 1 << 16));
+        if (input.readInt() != TrafficRecorder.MAGIC || input.readInt() != TrafficRecorder.VERSION) {
+            throw new IOException("Not a traffic capture");
+        }
+        this.startedMillis = input.readLong();
+    }
+
+    public Record next() throws IOException {
+        while (true) {
+            long delta;
+            try {
+                delta = readVarLong();
+            } catch (EOFException ex) {
+                return null;
+            }
+            timestamp += delta;
+            int flags = input.readUnsignedByte();
+            int stream = (int) readVarLong();
+            long zigzag = readVarLong();
+            int type = (int) ((zigzag >>> 1) ^ -(zigzag & 1));
+            int length = (int) readVarLong();
+            byte[] data = new byte[length];
+            input.readFully(data);
+            if ((flags & TrafficRecorder.STREAM_OPENED) != 0) {
+                streams.add(new String(data, StandardCharsets.UTF_8));
+                continue;
+            }
+            return new Record(timestamp, stream, (flags & TrafficRecorder.SERVER_SIDE) != 0, (flags & TrafficRecorder.INBOUND) != 0, type, data);
+        }
+    }
+
+    public long getStartedMillis() {
+        return startedMillis;
+    }
+
+    public String getStreamName(int stream) {
+        return (stream >= 0 && stream < streams.size()) ? streams.get(stream) : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private long readVarLong() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = input.readUnsignedByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed capture");
+    }
+
+    public static final class Record {
+
+        private final long timestamp;
+        private final int stream;
+        private final boolean serverSide;
+        private final boolean inbound;
+        private final int type;
+        private final byte[] data;
+
+        private Record(long timestamp, int stream, boolean serverSide, boolean inbound, int type, byte[] data) {
+            this.timestamp = timestamp;
+            this.stream = stream;
+            this.serverSide = serverSide;
+            this.inbound = inbound;
+            this.type = type;
+            this.data = data;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public int getStream() {
+            return stream;
+        }
+
+        public boolean isServerSide() {
+            return serverSide;
+        }
+
+        public boolean isInbound() {
+            return inbound;
+        }
+
+        public boolean isToServer() {
+            return serverSide == inbound;
+        }
+
+        public int getType() {
+            return type;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+    }
+
+}
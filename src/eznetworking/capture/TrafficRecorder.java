@@ -0,0 +1,115 @@
+package eznetworking.capture;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class TrafficRecorder implements Closeable {
+
+    static final int MAGIC = 0x455A5243;
+    static final int VERSION = 1;
+
+    static final int INBOUND = 1;
+    static final int SERVER_SIDE = 2;
+    static final int STREAM_OPENED = 4;
+
+    private final DataOutputStream output;
+    private final Map<String, Integer> streams = new HashMap<>();
+    private final long started;
+    private long last;
+    private long frames;
+    private long bytes;
+    private boolean closed;
+
+    public TrafficRecorder(Path path) throws IOException {
+        this(Files.newOutputStream(path), 1 << 16);
+    }
+
+    public TrafficRecorder(OutputStream outputStream, int bufferSize) throws IOException {
+        if (outputStream == null || bufferSize < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.output = new DataOutputStream(new BufferedOutputStream(outputStream, bufferSize));
+        this.started = System.nanoTime();
+        this.last = started;
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeLong(System.currentTimeMillis());
+    }
+
+    public synchronized boolean record(String stream, boolean serverSide, boolean inbound, int type, byte[] data, int offset, int length) {
+        if (stream == null || data == null || offset < 0 || length < 0 || offset + length > data.length) {
+            throw new IllegalArgumentException();
+        }
+        if (closed) {
+            return false;
+        }
+        try {
+            int flags = (serverSide ? SERVER_SIDE : 0) | (inbound ? INBOUND : 0);
+            Integer index = streams.get(stream);
+            if (index == null) {
+                index = streams.size();
+                streams.put(stream, index);
+                byte[] name = stream.getBytes(StandardCharsets.UTF_8);
+                writeHeader(flags | STREAM_OPENED, index, 0, name.length);
+                output.write(name);
+            }
+            writeHeader(flags, index, type, length);
+            output.write(data, offset, length);
+            frames++;
+            bytes += length;
+            return true;
+        } catch (IOException ex) {
+            closed = true;
+            return false;
+        }
+    }
+
+    public synchronized void flush() throws IOException {
+        if (!closed) {
+            output.flush();
+        }
+    }
+
+    public synchronized long getFrames() {
+        return frames;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            output.close();
+        }
+    }
+
+    private void writeHeader(int flags, int stream, int type, int length) throws IOException {
+        long now = System.nanoTime();
+        writeVarLong(output, now - last);
+        last = now;
+        output.writeByte(flags);
+        writeVarLong(output, stream);
+        writeVarLong(output, ((type << 1) ^ (type >> 31)) & 0xFFFFFFFFL);
+        writeVarLong(output, length);
+    }
+
+    static void writeVarLong(DataOutputStream output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+}
@@ -0,0 +1,157 @@
+package eznetworking.capture;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public final class TrafficReplayer {
+
+    private final Path capture;
+    private boolean originalPacing = true;
+
+    public TrafficReplayer(Path capture) {
+        if (capture == null) {
+            throw new IllegalArgumentException();
+        }
+        this.capture = capture;
+    }
+
+    public Result replay(String host, int port) throws IOException {
+        if (host == null || host.trim().isEmpty() || port < 1 || port > 65535) {
+            throw new IllegalArgumentException();
+        }
+        Map<Integer, Socket> sockets = new HashMap<>();
+        List<Thread> drains = new ArrayList<>();
+        LongAdder received = new LongAdder();
+        long frames = 0;
+        long bytes = 0;
+        long started = System.nanoTime();
+        try (TrafficReader reader = new TrafficReader(capture)) {
+            long first = -1;
+            TrafficReader.Record record;
+            while ((record = reader.next()) != null) {
+                if (!record.isToServer()) {
+                    continue;
+                }
+                if (first < 0) {
+                    first = record.getTimestamp();
+                }
+                if (originalPacing) {
+                    long due = started + (record.getTimestamp() - first);
+                    for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+                Socket socket = sockets.get(record.getStream());
+                if (socket == null) {
+                    socket = new Socket(host, port);
+                    socket.setTcpNoDelay(true);
+                    sockets.put(record.getStream(), socket);
+                    drains.add(drain(socket, received));
+                }
+                byte[] data = record.getData();
+                OutputStream outputStream = socket.getOutputStream();
+                outputStream.write(ByteBuffer.allocate(8 + data.length).putInt(record.getType()).putInt(data.length).put(data).array());
+                frames++;
+                bytes += 8 + data.length;
+            }
+        } finally {
+            for (Socket socket : sockets.values()) {
+                socket.close();
+            }
+            for (Thread drain : drains) {
+                try {
+                    drain.join();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        return new Result(sockets.size(), frames, bytes, received.sum(), System.nanoTime() - started);
+    }
+
+    private static Thread drain(Socket socket, LongAdder received) {
+        Thread thread = new Thread(() -> {
+            byte[] buffer = new byte[1 << 16];
+            try {
+                InputStream inputStream = socket.getInputStream();
+                for (int count = inputStream.read(buffer); count >= 0; count = inputStream.read(buffer)) {
+                    received.add(count);
+                }
+            } catch (IOException ex) {
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    public Path getCapture() {
+        return capture;
+    }
+
+    public boolean isOriginalPacing() {
+        return originalPacing;
+    }
+
+    public void setOriginalPacing(boolean originalPacing) {
+        this.originalPacing = originalPacing;
+    }
+
+    public static final class Result {
+
+        private final int connections;
+        private final long frames;
+        private final long bytesSent;
+        private final long bytesReceived;
+        private final long nanos;
+
+        private Result(int connections, long frames, long bytesSent, long bytesReceived, long nanos) {
+            this.connections = connections;
+            this.frames = frames;
+            this.bytesSent = bytesSent;
+            this.bytesReceived = bytesReceived;
+            this.nanos = nanos;
+        }
+
+        public int getConnections() {
+            return connections;
+        }
+
+        public long getFrames() {
+            return frames;
+        }
+
+        public long getBytesSent() {
+            return bytesSent;
+        }
+
+        public long getBytesReceived() {
+            return bytesReceived;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public double getFramesPerSecond() {
+            return (nanos > 0) ? frames * 1e9 / nanos : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Result[connections=%d, frames=%d, bytesSent=%d, bytesReceived=%d, nanos=%d]", connections, frames, bytesSent, bytesReceived, nanos);
+        }
+
+    }
+
+}
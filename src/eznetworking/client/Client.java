@@ -1,20 +1,59 @@
 package eznetworking.client;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
 import java.net.SocketTimeoutException;
 import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
 
+import eznetworking.capture.TrafficRecorder;
 import eznetworking.client.events.*;
+import eznetworking.flow.InboundPublisher;
+import eznetworking.flow.OutboundSubscriber;
+import eznetworking.metrics.Metrics;
+import eznetworking.metrics.MetricsRegistry;
+import eznetworking.packet.EncodedFrame;
+import eznetworking.packet.FrameBuffer;
+import eznetworking.packet.FrameDecoder;
+import eznetworking.packet.FrameType;
 import eznetworking.packet.Packet;
+import eznetworking.packet.Topic;
+import eznetworking.transport.ChannelTransport;
+import eznetworking.transport.DatagramLink;
+import eznetworking.transport.InProcessAddress;
+import eznetworking.transport.InProcessTransport;
+import eznetworking.transport.SharedMemoryAddress;
+import eznetworking.transport.SharedMemoryTransport;
+import eznetworking.transport.SocketTransport;
+import eznetworking.transport.TlsConfig;
+import eznetworking.transport.Transport;
 import eznetworking.util.AutoResetEvent;
+import eznetworking.util.Delta;
+import eznetworking.util.Id;
 import eznetworking.util.Progress;
 import eznetworking.util.Runner;
 import eznetworking.util.Serializer;
@@ -25,37 +64,69 @@ public class Client {
 
     private final String id;
 
-    private Socket client;
+    private Transport transport;
     private String host;
     private int port;
+    private UnixDomainSocketAddress unixAddress;
+    private InProcessAddress inProcessAddress;
+    private SharedMemoryAddress sharedMemoryAddress;
+    private TlsConfig tlsConfig;
+
+    private CopyOnWriteArrayList<ErrorOccurred> errorOccurredEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<ClientConnected> clientConnectedEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<ClientDisconnected> clientDisconnectedEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<DataAvailable> dataAvailableEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<BytesReceived> bytesReceivedEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<BytesViewReceived> bytesViewReceivedEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<PacketReceived> packetReceivedEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<PacketsReceived> packetsReceivedEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<CustomReceived> customReceivedEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<CustomViewReceived> customViewReceivedEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<DataSendPrepared> dataSendPrepared = new CopyOnWriteArrayList<>();
+
+    private ConcurrentHashMap<Id, Consumer<Packet>> pendingReplies = new ConcurrentHashMap<>();
+    private Set<String> topicSubscriptions = ConcurrentHashMap.newKeySet();
+
+    private ConcurrentHashMap<String, StateVersion> sentStates = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<String, StateVersion> receivedStates = new ConcurrentHashMap<>();
+    private volatile int stateSnapshotInterval = 100;
+
+    private volatile boolean relayAvailable;
+    private volatile String identity;
+    private Object durableLock = new Object();
+    private long durableEpoch;
+    private long durableSequence;
+
+    private CopyOnWriteArrayList<InboundPublisher<Packet>> packetPublishers = new CopyOnWriteArrayList<>();
+    private ConcurrentHashMap<InboundPublisher<byte[]>, Integer> customPublishers = new ConcurrentHashMap<>();
 
-    private ArrayList<ErrorOccurred> errorOccurredEvents = new ArrayList<>();
-    private ArrayList<ClientConnected> clientConnectedEvents = new ArrayList<>();
-    private ArrayList<ClientDisconnected> clientDisconnectedEvents = new ArrayList<>();
-    private ArrayList<DataAvailable> dataAvailableEvents = new ArrayList<>();
-    private ArrayList<BytesReceived> bytesReceivedEvents = new ArrayList<>();
-    private ArrayList<PacketReceived> packetReceivedEvents = new ArrayList<>();
-    private ArrayList<CustomReceived> customReceivedEvents = new ArrayList<>();
-    private ArrayList<DataSendPrepared> dataSendPrepared = new ArrayList<>();
-
-    private Object receiveLock = new Object();
     private Object sendLock = new Object();
 
     private int receiveBufferSize = 4096;
+    private volatile FrameDecoder receiveDecoder;
+    private Progress<Integer> receiveProgress;
+    private List<Packet> receivedPackets = new ArrayList<>();
     private int sendBufferSize = 4096;
 
-    private long bytesReceived;
-    private long bytesSent;
+    private volatile boolean checksumEnabled;
+    private volatile TrafficRecorder trafficRecorder;
+    private final CRC32C receiveChecksum = new CRC32C();
+    private final CRC32C sendChecksum = new CRC32C();
+
+    private final Metrics metrics;
 
     private Thread receiveThread;
     private boolean isReceiving;
 
-    private Client() {
+    private volatile DatagramLink datagramLink;
+
+    private Client(Metrics parentMetrics) {
         this.id = UniqueId.generate();
+        this.metrics = new Metrics(parentMetrics);
     }
 
     public Client(String host, int port) {
-        this();
+        this((Metrics) null);
         if (host == null || host.trim().isEmpty() || port < 1 || port > 65535) {
             throw new IllegalArgumentException();
         }
@@ -63,20 +134,58 @@ public class Client {
         this.port = port;
     }
 
+    public Client(UnixDomainSocketAddress address) {
+        this((Metrics) null);
+        if (address == null) {
+            throw new IllegalArgumentException();
+        }
+        this.unixAddress = address;
+    }
+
+    public Client(InProcessAddress address) {
+        this((Metrics) null);
+        if (address == null) {
+            throw new IllegalArgumentException();
+        }
+        this.inProcessAddress = address;
+    }
+
+    public Client(SharedMemoryAddress address) {
+        this((Metrics) null);
+        if (address == null) {
+            throw new IllegalArgumentException();
+        }
+        this.sharedMemoryAddress = address;
+    }
+
     public Client(Socket socket) {
-        this();
-        if (socket == null) {
+        this(new SocketTransport(socket), null);
+    }
+
+    public Client(Transport transport) {
+        this(transport, null);
+    }
+
+    protected Client(Transport transport, Metrics parentMetrics) {
+        this(parentMetrics);
+        if (transport == null) {
             throw new IllegalArgumentException();
         }
-        this.client = socket;
+        this.transport = transport;
     }
 
     public synchronized boolean connect(boolean startReceiving) {
         try {
-            if (client == null) {
-                client = new Socket(host, port);
-                client.setKeepAlive(true);
-                client.setSoTimeout(500);
+            if (transport == null) {
+                transport = openTransport();
+                transport.setReadTimeout(500);
+                MetricsRegistry.register(metrics, "Client", id);
+                if (identity != null) {
+                    sendIdentity(identity);
+                }
+                for (String pattern : topicSubscriptions) {
+                    sendControl(FrameType.SUBSCRIBE, pattern.getBytes(StandardCharsets.UTF_8));
+                }
                 triggerClientConnected();
                 return startReceiving ? startReceiving() : true;
             }
@@ -91,6 +200,20 @@ public class Client {
         return connect(false);
     }
 
+    private Transport openTransport() throws Exception {
+        if (inProcessAddress != null) {
+            return InProcessTransport.connect(inProcessAddress);
+        }
+        if (unixAddress != null || sharedMemoryAddress != null) {
+            Transport result = (unixAddress != null) ? ChannelTransport.connect(unixAddress) : SharedMemoryTransport.connect(sharedMemoryAddress);
+            return (tlsConfig != null) ? tlsConfig.wrapClient(result, null, -1) : result;
+        }
+        Socket socket = new Socket(host, port);
+        socket.setKeepAlive(true);
+        Transport result = new SocketTransport(socket);
+        return (tlsConfig != null) ? tlsConfig.wrapClient(result, host, port) : result;
+    }
+
     public boolean startReceiving() {
         try {
             if (receiveThread == null || !receiveThread.isAlive()) {
@@ -98,16 +221,31 @@ public class Client {
                 receiveThread = new Thread(() -> {
                     try {
                         while (!receiveThread.isInterrupted() && isReceiving) {
-                            byte[] bytes = receive(8, new Progress<Integer>());
-                            if (bytes != null && bytes.length > 0) {
-                                int type = ByteBuffer.wrap(Arrays.copyOfRange(bytes, 0, 4)).getInt();
-                                int length = ByteBuffer.wrap(Arrays.copyOfRange(bytes, 4, 8)).getInt();
-                                Progress<Integer> progress = new Progress<>();
-                                triggerDataAvailable(type, length, progress);
-                                triggerReceivedEvent(type, receive(length, progress));
-                            } else if (bytes != null && bytes.length == 0) {
-                            } else {
-                                receiveThread.interrupt();
+                            Transport current = transport;
+                            if (current instanceof InProcessTransport) {
+                                boolean received = receiveMessage((InProcessTransport) current);
+                                flushReceivedPackets();
+                                if (!received) {
+                                    receiveThread.interrupt();
+                                }
+                                continue;
+                            }
+                            FrameDecoder decoder = receiveDecoder;
+                            if (decoder == null) {
+                                decoder = new FrameDecoder(receiveBufferSize, receiveChecksum);
+                                receiveDecoder = decoder;
+                            }
+                            try {
+                                boolean received = receiveFrame(decoder, current.getInputStream());
+                                if (!received || !decoder.isFrameBuffered()) {
+                                    flushReceivedPackets();
+                                }
+                                if (!received) {
+                                    disconnect();
+                                    receiveThread.interrupt();
+                                }
+                            } catch (SocketTimeoutException ex) {
+                                flushReceivedPackets();
                             }
                         }
                     } catch (Exception ex) {
@@ -126,9 +264,19 @@ public class Client {
 
     public synchronized boolean disconnect() {
         try {
-            if (client != null) {
-                client.close();
-                client = null;
+            if (transport != null) {
+                closeDatagramLink();
+                transport.close();
+                transport = null;
+                receiveDecoder = null;
+                relayAvailable = false;
+                sentStates.clear();
+                receivedStates.clear();
+                Thread thread = receiveThread;
+                if (thread != null && thread != Thread.currentThread() && (!packetPublishers.isEmpty() || !customPublishers.isEmpty())) {
+                    thread.interrupt();
+                }
+                MetricsRegistry.unregister("Client", id);
                 triggerClientDisconnected();
                 return true;
             }
@@ -155,45 +303,167 @@ public class Client {
         }
     }
 
-    private byte[] receive(int length, Progress<Integer> progress) {
+    private boolean receiveFrame(FrameDecoder decoder, InputStream inputStream) throws IOException {
+        if (!decoder.isHeaderDecoded()) {
+            if (!decoder.readHeader(inputStream, metrics::bytesReceived)) {
+                return false;
+            }
+            frameArriving(decoder.getType(), decoder.getLength());
+            receiveProgress = new Progress<>();
+            if (!FrameType.isControl(decoder.getType())) {
+                triggerDataAvailable(decoder.getType(), decoder.getLength(), receiveProgress);
+            }
+            receiveProgress.started(0);
+        }
+        ByteBuffer payload = decoder.readPayloadBuffer(inputStream, metrics::bytesReceived, receiveProgress);
+        if (payload == null) {
+            return false;
+        }
+        int type = decoder.getType();
+        byte[] array = payload.array();
+        int offset = payload.arrayOffset();
+        int length = payload.remaining();
+        receiveProgress.finished(length);
+        if (!decoder.isChecksumValid()) {
+            triggerErrorOccurred(new IOException("Frame checksum mismatch"));
+            return true;
+        }
+        recordFrame(true, type, array, offset, length);
+        metrics.frameReceived((type == FrameType.ROUTED_PACKET) ? FrameType.PACKET : type);
+        if (FrameType.isControl(type)) {
+            controlReceived(type, Arrays.copyOfRange(array, offset, offset + length));
+        } else if (type == FrameType.PACKET || length == 0) {
+            triggerReceivedEvent(type, Arrays.copyOfRange(array, offset, offset + length));
+        } else if (type > 0) {
+            FrameBuffer view = new FrameBuffer(array, offset, length);
+            triggerReceivedEvent(type, view, null);
+            if (!view.release()) {
+                decoder.detach();
+            }
+        }
+        return true;
+    }
+
+    private boolean receiveMessage(InProcessTransport inProcess) {
         try {
-            synchronized (receiveLock) {
-                ByteBuffer byteBuffer = ByteBuffer.allocate(length);
-                byte[] buffer = (length > receiveBufferSize) ? new byte[receiveBufferSize] : new byte[length];
+            Object message = inProcess.poll();
+            if (message instanceof Packet) {
+                Packet packet = (Packet) message;
+                frameArriving(FrameType.PACKET, 0);
+                recordMessage(true, FrameType.PACKET, packet);
+                if (relayPacket(packet)) {
+                    metrics.frameReceived(FrameType.PACKET);
+                    return true;
+                }
+                Progress<Integer> progress = new Progress<>();
+                triggerDataAvailable(FrameType.PACKET, 0, progress);
                 progress.started(0);
-                InputStream inputStream = client.getInputStream();
-                int bytesRead = 0;
-                for (int i = 0; i < length; i += bytesRead) {
-                    bytesRead = inputStream.read(buffer, 0, buffer.length);
-                    byteBuffer.put(buffer, 0, bytesRead);
-                    bytesReceived += bytesRead;
-                    progress.changed(i);
+                progress.finished(0);
+                metrics.frameReceived(FrameType.PACKET);
+                triggerPacketEvent(packet);
+            } else if (message instanceof InProcessTransport.Frame) {
+                InProcessTransport.Frame frame = (InProcessTransport.Frame) message;
+                int type = frame.getType();
+                byte[] data = frame.getData();
+                frameArriving(type, data.length);
+                recordFrame(true, type, data, 0, data.length);
+                metrics.bytesReceived(8 + data.length);
+                metrics.frameReceived((type == FrameType.ROUTED_PACKET) ? FrameType.PACKET : type);
+                if (FrameType.isControl(type)) {
+                    controlReceived(type, data);
+                } else {
+                    Progress<Integer> progress = new Progress<>();
+                    triggerDataAvailable(type, data.length, progress);
+                    progress.started(0);
+                    progress.finished(data.length);
+                    triggerReceivedEvent(type, data);
                 }
-                progress.finished(length);
-                return byteBuffer.array();
             }
-        } catch (BufferOverflowException | SocketTimeoutException ex) {
-            return new byte[0];
+            return true;
+        } catch (SocketTimeoutException ex) {
+            return true;
         } catch (Exception ex) {
             disconnect();
-            return null;
+            return false;
+        }
+    }
+
+    private boolean sendMessage(InProcessTransport inProcess, int type, Object message, int length, Progress<Integer> progress) {
+        triggerDataSendPrepared(type, length, progress);
+        progress.started(0);
+        if (!inProcess.offer(message)) {
+            disconnect();
+            return false;
+        }
+        recordMessage(false, type, message);
+        metrics.bytesSent(length);
+        metrics.frameSent(type);
+        progress.finished(length);
+        return true;
+    }
+
+    private void recordFrame(boolean inbound, int type, byte[] data, int offset, int length) {
+        TrafficRecorder recorder = trafficRecorder;
+        if (recorder != null) {
+            recorder.record(id, isServerSide(), inbound, type, data, offset, length);
         }
     }
 
+    private void recordMessage(boolean inbound, int type, Object message) {
+        if (trafficRecorder == null) {
+            return;
+        }
+        if (message instanceof InProcessTransport.Frame) {
+            byte[] data = ((InProcessTransport.Frame) message).getData();
+            recordFrame(inbound, type, data, 0, data.length);
+        } else if (message instanceof Packet) {
+            byte[] data = Serializer.serialize((Packet) message);
+            if (data != null) {
+                recordFrame(inbound, type, data, 0, data.length);
+            }
+        }
+    }
+
+    protected boolean isServerSide() {
+        return false;
+    }
+
     private boolean send(int type, byte[] data, Progress<Integer> progress) {
+        return send(type, data, 0, data.length, progress);
+    }
+
+    private boolean send(int type, byte[] data, int offset, int length, Progress<Integer> progress) {
         try {
+            Transport current = transport;
+            if (current instanceof InProcessTransport) {
+                byte[] copy = Arrays.copyOfRange(data, offset, offset + length);
+                return sendMessage((InProcessTransport) current, type, new InProcessTransport.Frame(type, copy), 8 + copy.length, progress);
+            }
             synchronized (sendLock) {
-                ByteBuffer byteBuffer = ByteBuffer.allocate(8 + data.length).putInt(type).putInt(data.length).put(data);
+                boolean checksummed = checksumEnabled;
+                ByteBuffer byteBuffer = ByteBuffer.allocate(8 + length).putInt(type).putInt(checksummed ? length | Integer.MIN_VALUE : length).put(data, offset, length);
                 byte[] bytes = byteBuffer.array();
                 triggerDataSendPrepared(type, bytes.length, progress);
                 progress.started(0);
-                OutputStream outputStream = client.getOutputStream();
+                OutputStream outputStream = transport.getOutputStream();
+                if (checksummed) {
+                    sendChecksum.reset();
+                }
                 for (int i = 0; i < bytes.length; i += sendBufferSize) {
                     int count = Math.min(sendBufferSize, bytes.length - i);
                     outputStream.write(bytes, i, count);
-                    bytesSent += count;
+                    if (checksummed) {
+                        sendChecksum.update(bytes, i, count);
+                    }
+                    metrics.bytesSent(count);
                     progress.changed(i);
                 }
+                if (checksummed) {
+                    outputStream.write(ByteBuffer.allocate(4).putInt((int) sendChecksum.getValue()).array());
+                    metrics.bytesSent(4);
+                }
+                recordFrame(false, type, data, offset, length);
+                metrics.frameSent(type);
                 progress.finished(bytes.length);
                 return true;
             }
@@ -216,7 +486,183 @@ public class Client {
         if (packet == null) {
             throw new IllegalArgumentException();
         }
-        return send(2, Serializer.serialize(packet), new Progress<Integer>());
+        Transport current = transport;
+        if (current instanceof InProcessTransport && ((InProcessTransport) current).isPassByReference()) {
+            return sendMessage((InProcessTransport) current, FrameType.PACKET, packet, 0, new Progress<Integer>());
+        }
+        byte[] data = Serializer.serialize(packet);
+        String destination = packet.getDestination();
+        if (relayAvailable && destination != null && !destination.isEmpty() && data != null) {
+            byte[] name = destination.getBytes(StandardCharsets.UTF_8);
+            if (name.length <= Short.MAX_VALUE) {
+                ByteBuffer routed = ByteBuffer.allocate(2 + name.length + data.length).putShort((short) name.length).put(name).put(data);
+                return send(FrameType.ROUTED_PACKET, routed.array(), new Progress<Integer>());
+            }
+        }
+        return send(2, data, new Progress<Integer>());
+    }
+
+    public boolean sendPackets(Collection<Packet> packets) {
+        if (packets == null || packets.isEmpty()) {
+            throw new IllegalArgumentException();
+        }
+        for (Packet packet : packets) {
+            if (packet == null) {
+                throw new IllegalArgumentException();
+            }
+        }
+        Transport current = transport;
+        if (current instanceof InProcessTransport && ((InProcessTransport) current).isPassByReference()) {
+            for (Packet packet : packets) {
+                if (!sendMessage((InProcessTransport) current, FrameType.PACKET, packet, 0, new Progress<Integer>())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        byte[][] names = new byte[packets.size()][];
+        byte[][] entries = new byte[packets.size()][];
+        int length = 4;
+        int index = 0;
+        for (Packet packet : packets) {
+            byte[] data = Serializer.serialize(packet);
+            if (data == null) {
+                return false;
+            }
+            String destination = packet.getDestination();
+            byte[] name = (relayAvailable && destination != null && !destination.isEmpty()) ? destination.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            names[index] = (name.length <= Short.MAX_VALUE) ? name : new byte[0];
+            entries[index] = data;
+            length += 2 + names[index].length + 4 + data.length;
+            index++;
+        }
+        ByteBuffer batch = ByteBuffer.allocate(length).putInt(entries.length);
+        for (int i = 0; i < entries.length; i++) {
+            batch.putShort((short) names[i].length).put(names[i]).putInt(entries[i].length).put(entries[i]);
+        }
+        return send(FrameType.PACKET_BATCH, batch.array(), new Progress<Integer>());
+    }
+
+    private boolean sendIdentity(String identity) {
+        byte[] name = identity.getBytes(StandardCharsets.UTF_8);
+        long epoch;
+        long sequence;
+        synchronized (durableLock) {
+            epoch = durableEpoch;
+            sequence = durableSequence;
+        }
+        return sendControl(FrameType.IDENTIFY, ByteBuffer.allocate(2 + name.length + 2 * Long.BYTES).putShort((short) name.length).put(name).putLong(epoch).putLong(sequence).array());
+    }
+
+    public <T extends Serializable> boolean sendState(int type, String objectId, T state) {
+        if (state == null) {
+            throw new IllegalArgumentException();
+        }
+        byte[] data = Serializer.serialize(state);
+        return data != null && sendStateVersion(type, objectId, data);
+    }
+
+    public boolean sendState(int type, String objectId, byte[] data) {
+        if (data == null) {
+            throw new IllegalArgumentException();
+        }
+        return sendStateVersion(type, objectId, data.clone());
+    }
+
+    private boolean sendStateVersion(int type, String objectId, byte[] data) {
+        if (type < 3 || objectId == null || objectId.isEmpty() || data.length == 0) {
+            throw new IllegalArgumentException();
+        }
+        byte[] name = objectId.getBytes(StandardCharsets.UTF_8);
+        if (name.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException();
+        }
+        StateVersion sent = sentStates.computeIfAbsent(objectId, (k) -> new StateVersion());
+        synchronized (sent) {
+            long base = sent.version;
+            byte[] patch = (base > 0 && sent.deltas < stateSnapshotInterval) ? Delta.encode(sent.data, data) : null;
+            if (patch != null && patch.length >= data.length) {
+                patch = null;
+            }
+            byte[] body = (patch != null) ? patch : data;
+            ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + 2 + name.length + 2 * Long.BYTES + body.length);
+            frame.putInt(type).putShort((short) name.length).put(name).putLong(base + 1).putLong((patch != null) ? base : 0).put(body);
+            if (!send(FrameType.STATE, frame.array(), new Progress<Integer>())) {
+                return false;
+            }
+            sent.version = base + 1;
+            sent.data = data;
+            sent.deltas = (patch != null) ? sent.deltas + 1 : 0;
+            return true;
+        }
+    }
+
+    private void receiveState(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        int type = buffer.getInt();
+        int nameLength = buffer.getShort();
+        int offset = Integer.BYTES + 2 + nameLength + 2 * Long.BYTES;
+        if (type < 3 || nameLength < 1 || offset > data.length) {
+            return;
+        }
+        String objectId = new String(data, buffer.position(), nameLength, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + nameLength);
+        long version = buffer.getLong();
+        long base = buffer.getLong();
+        StateVersion received = receivedStates.computeIfAbsent(objectId, (k) -> new StateVersion());
+        byte[] state;
+        synchronized (received) {
+            if (base == 0) {
+                state = Arrays.copyOfRange(data, offset, data.length);
+            } else if (base == received.version && received.data != null) {
+                state = Delta.apply(received.data, data, offset, data.length - offset);
+            } else {
+                state = null;
+            }
+            if (state == null) {
+                received.version = -1;
+                sendControl(FrameType.STATE_RESYNC, objectId.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            received.version = version;
+            received.data = state;
+        }
+        triggerReceivedEvent(type, state);
+    }
+
+    public boolean subscribe(String pattern) {
+        if (!Topic.isValidPattern(pattern)) {
+            throw new IllegalArgumentException();
+        }
+        topicSubscriptions.add(pattern);
+        return transport == null || sendControl(FrameType.SUBSCRIBE, pattern.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean unsubscribe(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException();
+        }
+        if (!topicSubscriptions.remove(pattern)) {
+            return false;
+        }
+        return transport == null || sendControl(FrameType.UNSUBSCRIBE, pattern.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Set<String> getSubscriptions() {
+        return Collections.unmodifiableSet(topicSubscriptions);
+    }
+
+    public boolean publish(String topic, Packet packet) {
+        if (!Topic.isValidTopic(topic) || packet == null) {
+            throw new IllegalArgumentException();
+        }
+        byte[] name = topic.getBytes(StandardCharsets.UTF_8);
+        byte[] data = Serializer.serialize(packet);
+        if (data == null || name.length > Short.MAX_VALUE) {
+            return false;
+        }
+        ByteBuffer published = ByteBuffer.allocate(2 + name.length + data.length).putShort((short) name.length).put(name).put(data);
+        return send(FrameType.PUBLISH, published.array(), new Progress<Integer>());
     }
 
     public Packet sendPacket(Packet packet, long timeout) throws InterruptedException, TimeoutException {
@@ -225,17 +671,326 @@ public class Client {
         }
         Wrapper<Packet> wrapper = new Wrapper<>(null);
         AutoResetEvent autoResetEvent = new AutoResetEvent(false);
-        PacketReceived listener = addPacketReceivedListener(packet.getReplyHeader(), (s, p) -> {
+        Id key = packet.getBinaryId();
+        pendingReplies.put(key, (p) -> {
             wrapper.setValue(p);
             autoResetEvent.set();
         });
-        if (sendPacket(packet)) {
-            autoResetEvent.waitOne(timeout);
+        metrics.requestStarted();
+        try {
+            long started = System.nanoTime();
+            if (sendPacket(packet)) {
+                autoResetEvent.waitOne(timeout);
+                metrics.roundTripCompleted(packet.getHeader(), System.nanoTime() - started);
+            }
+        } finally {
+            metrics.requestFinished();
+            pendingReplies.remove(key);
         }
-        removePacketReceivedListener(listener);
         return wrapper.getValue();
     }
 
+    public boolean sendUnreliable(Packet packet) {
+        return sendDatagram(DatagramLink.UNRELIABLE, packet);
+    }
+
+    public boolean sendSequenced(Packet packet) {
+        return sendDatagram(DatagramLink.SEQUENCED, packet);
+    }
+
+    private boolean sendDatagram(byte kind, Packet packet) {
+        if (packet == null) {
+            throw new IllegalArgumentException();
+        }
+        DatagramLink link = datagramLink;
+        if (link == null) {
+            return false;
+        }
+        byte[] data = Serializer.serialize(packet);
+        if (data != null && link.send(kind, data)) {
+            metrics.bytesSent(DatagramLink.HEADER_SIZE + data.length);
+            metrics.frameSent(FrameType.PACKET);
+            return true;
+        }
+        return false;
+    }
+
+    protected boolean sendControl(int type, byte[] data) {
+        if (!FrameType.isControl(type) || data == null) {
+            throw new IllegalArgumentException();
+        }
+        return send(type, data, new Progress<Integer>());
+    }
+
+    protected boolean sendFrame(int type, byte[] data, int offset, int length) {
+        if (type < 1 || data == null || offset < 0 || length < 1 || offset + length > data.length) {
+            throw new IllegalArgumentException();
+        }
+        return send(type, data, offset, length, new Progress<Integer>());
+    }
+
+    public boolean sendBuffer(int type, FrameBuffer buffer) {
+        if (type < 1 || buffer == null || buffer.getLength() < 1) {
+            throw new IllegalArgumentException();
+        }
+        Progress<Integer> progress = new Progress<>();
+        buffer.retain();
+        try {
+            Transport current = transport;
+            if (current instanceof InProcessTransport) {
+                byte[] copy = buffer.toArray();
+                return sendMessage((InProcessTransport) current, type, new InProcessTransport.Frame(type, copy), 8 + copy.length, progress);
+            }
+            synchronized (sendLock) {
+                boolean checksummed = checksumEnabled;
+                int length = buffer.getLength();
+                byte[] header = ByteBuffer.allocate(8).putInt(type).putInt(checksummed ? length | Integer.MIN_VALUE : length).array();
+                triggerDataSendPrepared(type, 8 + length, progress);
+                progress.started(0);
+                OutputStream outputStream = transport.getOutputStream();
+                outputStream.write(header);
+                buffer.writeTo(outputStream);
+                metrics.bytesSent(8 + length);
+                if (checksummed) {
+                    sendChecksum.reset();
+                    sendChecksum.update(header);
+                    buffer.update(sendChecksum);
+                    outputStream.write(ByteBuffer.allocate(4).putInt((int) sendChecksum.getValue()).array());
+                    metrics.bytesSent(4);
+                }
+                if (trafficRecorder != null) {
+                    byte[] data = buffer.toArray();
+                    recordFrame(false, type, data, 0, data.length);
+                }
+                metrics.frameSent(type);
+                progress.finished(8 + length);
+                return true;
+            }
+        } catch (Exception ex) {
+            disconnect();
+            return false;
+        } finally {
+            buffer.release();
+        }
+    }
+
+    protected boolean sendEncoded(EncodedFrame frame) {
+        if (frame == null) {
+            throw new IllegalArgumentException();
+        }
+        Progress<Integer> progress = new Progress<>();
+        try {
+            Transport current = transport;
+            if (current instanceof InProcessTransport) {
+                byte[] payload = frame.getPayload();
+                return sendMessage((InProcessTransport) current, frame.getType(), new InProcessTransport.Frame(frame.getType(), payload), 8 + payload.length, progress);
+            }
+            synchronized (sendLock) {
+                byte[] bytes = frame.getBytes(checksumEnabled);
+                triggerDataSendPrepared(frame.getType(), bytes.length, progress);
+                progress.started(0);
+                OutputStream outputStream = transport.getOutputStream();
+                for (int i = 0; i < bytes.length; i += sendBufferSize) {
+                    int count = Math.min(sendBufferSize, bytes.length - i);
+                    outputStream.write(bytes, i, count);
+                    metrics.bytesSent(count);
+                    progress.changed(i);
+                }
+                recordFrame(false, frame.getType(), frame.getPayload(), 0, frame.getPayload().length);
+                metrics.frameSent(frame.getType());
+                progress.finished(bytes.length);
+                return true;
+            }
+        } catch (Exception ex) {
+            disconnect();
+            return false;
+        }
+    }
+
+    protected void frameArriving(int type, int length) {
+    }
+
+    protected boolean topicSubscriptionReceived(String pattern, boolean subscribe) {
+        return false;
+    }
+
+    protected boolean topicPublished(String topic, byte[] data, int offset, int length) {
+        return false;
+    }
+
+    protected boolean relayFrame(String destination, byte[] data, int offset, int length) {
+        return false;
+    }
+
+    protected boolean relayPacket(Packet packet) {
+        return false;
+    }
+
+    protected void controlReceived(int type, byte[] data) {
+        if ((type == FrameType.ROUTED_PACKET || type == FrameType.PUBLISH) && data != null && data.length > 2) {
+            int nameLength = ByteBuffer.wrap(data).getShort();
+            int offset = 2 + nameLength;
+            if (nameLength >= 0 && offset < data.length) {
+                String name = new String(data, 2, nameLength, StandardCharsets.UTF_8);
+                boolean handled = (type == FrameType.PUBLISH) ? topicPublished(name, data, offset, data.length - offset) : relayFrame(name, data, offset, data.length - offset);
+                if (!handled) {
+                    byte[] packetData = Arrays.copyOfRange(data, offset, data.length);
+                    Progress<Integer> progress = new Progress<>();
+                    triggerDataAvailable(FrameType.PACKET, packetData.length, progress);
+                    progress.started(0);
+                    progress.finished(packetData.length);
+                    triggerReceivedEvent(FrameType.PACKET, packetData);
+                }
+            }
+        } else if ((type == FrameType.SUBSCRIBE || type == FrameType.UNSUBSCRIBE) && data != null && data.length > 0) {
+            topicSubscriptionReceived(new String(data, StandardCharsets.UTF_8), type == FrameType.SUBSCRIBE);
+        } else if (type == FrameType.STATE && data != null && data.length > Integer.BYTES + 2 + 2 * Long.BYTES) {
+            receiveState(data);
+        } else if (type == FrameType.STATE_RESYNC && data != null && data.length > 0) {
+            sentStates.remove(new String(data, StandardCharsets.UTF_8));
+        } else if (type == FrameType.DELIVER && data != null && data.length > 2 * Long.BYTES) {
+            receiveDurable(data);
+        } else if (type == FrameType.PACKET_BATCH && data != null && data.length >= 4) {
+            receiveBatch(data);
+        } else if (type == FrameType.RELAY_AVAILABLE && data != null && data.length == 1) {
+            relayAvailable = data[0] != 0;
+        } else if (type == FrameType.DATAGRAM_BIND && data != null && data.length == Long.BYTES + 2 * Integer.BYTES) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            openDatagramLink(buffer.getLong(), buffer.getInt(), buffer.getInt());
+        }
+    }
+
+    private void receiveDurable(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        long epoch = buffer.getLong();
+        long sequence = buffer.getLong();
+        boolean duplicate;
+        synchronized (durableLock) {
+            if (epoch != durableEpoch) {
+                durableEpoch = epoch;
+                durableSequence = 0;
+            }
+            duplicate = sequence <= durableSequence;
+        }
+        if (!duplicate) {
+            triggerReceivedEvent(FrameType.PACKET, Arrays.copyOfRange(data, 2 * Long.BYTES, data.length));
+            synchronized (durableLock) {
+                if (epoch == durableEpoch) {
+                    durableSequence = Math.max(durableSequence, sequence);
+                }
+            }
+        }
+        sendControl(FrameType.ACK, ByteBuffer.allocate(2 * Long.BYTES).putLong(epoch).putLong(sequence).array());
+    }
+
+    private void receiveBatch(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        int count = buffer.getInt();
+        List<Packet> packets = new ArrayList<>(Math.max(0, Math.min(count, data.length / 6)));
+        try {
+            for (int i = 0; i < count; i++) {
+                int nameLength = buffer.getShort();
+                String destination = null;
+                if (nameLength > 0) {
+                    destination = new String(data, buffer.position(), nameLength, StandardCharsets.UTF_8);
+                    buffer.position(buffer.position() + nameLength);
+                }
+                int length = buffer.getInt();
+                int offset = buffer.position();
+                buffer.position(offset + length);
+                if (destination != null && relayFrame(destination, data, offset, length)) {
+                    continue;
+                }
+                Packet packet = Serializer.deserialize(Arrays.copyOfRange(data, offset, offset + length));
+                if (packet != null) {
+                    packets.add(packet);
+                }
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException ex) {
+            triggerErrorOccurred(ex);
+        }
+        for (Packet packet : packets) {
+            dispatchPacket(packet);
+        }
+        collectPackets(packets);
+    }
+
+    // --- Datagrams ---
+
+    private void openDatagramLink(long token, int port, int mtu) {
+        try {
+            Socket socket = getSocket();
+            if (socket == null) {
+                return;
+            }
+            InetSocketAddress address = new InetSocketAddress(socket.getInetAddress(), port);
+            DatagramChannel channel = DatagramLink.open();
+            channel.connect(address);
+            DatagramLink link = new DatagramLink(channel, true, token, mtu, address);
+            closeDatagramLink();
+            datagramLink = link;
+            Thread datagramThread = new Thread(() -> {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(mtu);
+                try {
+                    while (channel.isOpen()) {
+                        buffer.clear();
+                        SocketAddress sender = channel.receive(buffer);
+                        buffer.flip();
+                        datagramReceived(buffer, sender);
+                    }
+                } catch (Exception ex) {
+                }
+            });
+            datagramThread.setDaemon(true);
+            datagramThread.start();
+            Runner.run(() -> {
+                try {
+                    for (int i = 0; i < 20 && !link.isAcknowledged() && channel.isOpen(); i++) {
+                        link.send(DatagramLink.HELLO, new byte[0]);
+                        Thread.sleep(50);
+                    }
+                } catch (InterruptedException ex) {
+                }
+            }, true);
+        } catch (Exception ex) {
+            triggerErrorOccurred(ex);
+        }
+    }
+
+    protected void datagramReceived(ByteBuffer datagram, SocketAddress sender) {
+        DatagramLink link = datagramLink;
+        if (link == null || datagram.remaining() < DatagramLink.HEADER_SIZE) {
+            return;
+        }
+        metrics.bytesReceived(datagram.remaining());
+        byte kind = datagram.get();
+        long token = datagram.getLong();
+        long sequence = datagram.getLong();
+        if (token != link.getToken()) {
+            return;
+        }
+        if (kind == DatagramLink.HELLO) {
+            link.setRemoteAddress(sender);
+            link.setAcknowledged(true);
+            link.send(DatagramLink.HELLO_ACK, new byte[0]);
+        } else if (kind == DatagramLink.HELLO_ACK) {
+            link.setAcknowledged(true);
+        } else if (kind == DatagramLink.UNRELIABLE || (kind == DatagramLink.SEQUENCED && link.acceptSequence(sequence))) {
+            byte[] data = new byte[datagram.remaining()];
+            datagram.get(data);
+            metrics.frameReceived(FrameType.PACKET);
+            triggerReceivedEvent(FrameType.PACKET, data);
+        }
+    }
+
+    private void closeDatagramLink() {
+        DatagramLink link = datagramLink;
+        if (link != null) {
+            datagramLink = null;
+            link.close();
+        }
+    }
+
     public boolean sendCustom(int type, byte[] data) {
         if (type < 3 || data == null || data.length == 0) {
             throw new IllegalArgumentException();
@@ -250,21 +1005,168 @@ public class Client {
         return send(type, Serializer.serialize(tClass), new Progress<Integer>());
     }
 
+    // --- Flow ---
+
+    public InboundPublisher<Packet> createPacketPublisher() {
+        return createPacketPublisher((p) -> true);
+    }
+
+    public InboundPublisher<Packet> createPacketPublisher(String header) {
+        if (header == null || header.trim().isEmpty()) {
+            throw new IllegalArgumentException();
+        }
+        return createPacketPublisher((p) -> p.getHeader().contentEquals(header) || header.contentEquals("*"));
+    }
+
+    public InboundPublisher<Packet> createPacketPublisher(Predicate<Packet> filter) {
+        InboundPublisher<Packet> publisher = new InboundPublisher<>(filter);
+        packetPublishers.add(publisher);
+        return publisher;
+    }
+
+    public InboundPublisher<byte[]> createCustomPublisher(int type) {
+        if (type < 3) {
+            throw new IllegalArgumentException();
+        }
+        InboundPublisher<byte[]> publisher = new InboundPublisher<>((d) -> true);
+        customPublishers.put(publisher, type);
+        return publisher;
+    }
+
+    public boolean removePublisher(Flow.Publisher<?> publisher) {
+        if (publisher == null) {
+            throw new IllegalArgumentException();
+        }
+        boolean removed = packetPublishers.remove(publisher) | customPublishers.remove(publisher) != null;
+        if (removed) {
+            ((InboundPublisher<?>) publisher).close();
+        }
+        return removed;
+    }
+
+    public OutboundSubscriber<Packet> createPacketSubscriber() {
+        return createPacketSubscriber(16);
+    }
+
+    public OutboundSubscriber<Packet> createPacketSubscriber(int window) {
+        return new OutboundSubscriber<>(this::sendPacket, window);
+    }
+
+    private void publishPacket(Packet packet) {
+        try {
+            for (InboundPublisher<Packet> publisher : packetPublishers) {
+                publisher.publish(packet);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publishCustom(int type, byte[] data) {
+        try {
+            for (Map.Entry<InboundPublisher<byte[]>, Integer> entry : customPublishers.entrySet()) {
+                if (entry.getValue() == type) {
+                    entry.getKey().publish(data);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     // --- Events ---
 
     private void triggerReceivedEvent(int type, byte[] data) {
         if (type > 0 && data != null && data.length > 0) {
-            if (type == 1) {
-                triggerBytesReceived(data);
-            } else if (type == 2) {
-                triggerPacketReceived(Serializer.deserialize(data));
+            if (type == 2) {
+                triggerPacketEvent(Serializer.deserialize(data));
+            } else if ((type == 1) ? bytesViewReceivedEvents.isEmpty() : customViewReceivedEvents.isEmpty()) {
+                triggerReceivedEvent(type, null, data);
             } else {
+                FrameBuffer view = new FrameBuffer(data, 0, data.length);
+                triggerReceivedEvent(type, view, data);
+                view.release();
+            }
+        }
+    }
+
+    private void triggerReceivedEvent(int type, FrameBuffer view, byte[] data) {
+        long started = System.nanoTime();
+        if (type == 1) {
+            if (!bytesReceivedEvents.isEmpty()) {
+                triggerBytesReceived((data != null) ? data : view.toArray());
+            }
+            if (view != null && !bytesViewReceivedEvents.isEmpty()) {
+                triggerBytesViewReceived(view);
+            }
+            metrics.bytesListenerExecuted(System.nanoTime() - started);
+        } else {
+            if (data == null && (!customReceivedEvents.isEmpty() || !customPublishers.isEmpty())) {
+                data = view.toArray();
+            }
+            if (!customReceivedEvents.isEmpty()) {
                 triggerCustomReceived(type, data);
             }
+            if (view != null && !customViewReceivedEvents.isEmpty()) {
+                triggerCustomViewReceived(type, view);
+            }
+            metrics.customListenerExecuted(type, System.nanoTime() - started);
+            if (!customPublishers.isEmpty()) {
+                publishCustom(type, data);
+            }
+        }
+    }
+
+    private void triggerPacketEvent(Packet packet) {
+        dispatchPacket(packet);
+        if (packet != null) {
+            collectPackets(List.of(packet));
+        }
+    }
+
+    private void collectPackets(List<Packet> packets) {
+        if (packets.isEmpty() || packetsReceivedEvents.isEmpty()) {
+            return;
+        }
+        if (Thread.currentThread() == receiveThread) {
+            receivedPackets.addAll(packets);
+        } else {
+            triggerPacketsEvent(packets);
+        }
+    }
+
+    private void flushReceivedPackets() {
+        if (!receivedPackets.isEmpty()) {
+            List<Packet> packets = new ArrayList<>(receivedPackets);
+            receivedPackets.clear();
+            triggerPacketsEvent(packets);
+        }
+    }
+
+    private void triggerPacketsEvent(List<Packet> packets) {
+        long started = System.nanoTime();
+        triggerPacketsReceived(Collections.unmodifiableList(packets));
+        metrics.listenerExecuted(System.nanoTime() - started);
+    }
+
+    private void dispatchPacket(Packet packet) {
+        if (packet != null && !pendingReplies.isEmpty()) {
+            Id target = packet.getReplyTarget();
+            Consumer<Packet> pending = (target != null) ? pendingReplies.remove(target) : null;
+            if (pending != null) {
+                pending.accept(packet);
+            }
+        }
+        long started = System.nanoTime();
+        triggerPacketReceived(packet);
+        metrics.packetListenerExecuted((packet != null) ? packet.getHeader() : null, System.nanoTime() - started);
+        if (packet != null && !packetPublishers.isEmpty()) {
+            publishPacket(packet);
         }
     }
 
     private void triggerErrorOccurred(Exception error) {
+        metrics.errorOccurred();
         Runner.run(() -> {
             for (ErrorOccurred eo : errorOccurredEvents) {
                 eo.occurred(this, error);
@@ -374,6 +1276,28 @@ public class Client {
         return bytesReceivedEvents.remove(listener);
     }
 
+    private void triggerBytesViewReceived(FrameBuffer buffer) {
+        Runner.run(() -> {
+            for (BytesViewReceived bvr : bytesViewReceivedEvents) {
+                bvr.received(this, buffer);
+            }
+        });
+    }
+
+    public void addBytesViewReceivedListener(BytesViewReceived listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        bytesViewReceivedEvents.add(listener);
+    }
+
+    public boolean removeBytesViewReceivedListener(BytesViewReceived listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        return bytesViewReceivedEvents.remove(listener);
+    }
+
     private void triggerPacketReceived(Packet packet) {
         Runner.run(() -> {
             for (PacketReceived pr : packetReceivedEvents) {
@@ -422,6 +1346,28 @@ public class Client {
         return packetReceivedEvents.remove(listener);
     }
 
+    private void triggerPacketsReceived(List<Packet> packets) {
+        Runner.run(() -> {
+            for (PacketsReceived pr : packetsReceivedEvents) {
+                pr.received(this, packets);
+            }
+        });
+    }
+
+    public void addPacketsReceivedListener(PacketsReceived listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        packetsReceivedEvents.add(listener);
+    }
+
+    public boolean removePacketsReceivedListener(PacketsReceived listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        return packetsReceivedEvents.remove(listener);
+    }
+
     private void triggerCustomReceived(int type, byte[] data) {
         Runner.run(() -> {
             for (CustomReceived cr : customReceivedEvents) {
@@ -457,6 +1403,41 @@ public class Client {
         return customReceivedEvents.remove(listener);
     }
 
+    private void triggerCustomViewReceived(int type, FrameBuffer buffer) {
+        Runner.run(() -> {
+            for (CustomViewReceived cvr : customViewReceivedEvents) {
+                cvr.received(this, type, buffer);
+            }
+        });
+    }
+
+    public void addCustomViewReceivedListener(CustomViewReceived listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        customViewReceivedEvents.add(listener);
+    }
+
+    public CustomViewReceived addCustomViewReceivedListener(int type, CustomViewReceived listener) {
+        if (type < 0 || type == 1 || type == 2 || listener == null) {
+            throw new IllegalArgumentException();
+        }
+        CustomViewReceived result = (s, t, b) -> {
+            if (t == type || type == 0) {
+                listener.received(s, t, b);
+            }
+        };
+        addCustomViewReceivedListener(result);
+        return result;
+    }
+
+    public boolean removeCustomViewReceivedListener(CustomViewReceived listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        return customViewReceivedEvents.remove(listener);
+    }
+
     private void triggerDataSendPrepared(int type, int length, Progress<Integer> progress) {
         Runner.run(() -> {
             for (DataSendPrepared dsp : dataSendPrepared) {
@@ -486,15 +1467,90 @@ public class Client {
     }
 
     public Socket getSocket() {
-        return client;
+        return (transport != null) ? transport.getSocket() : null;
+    }
+
+    public Transport getTransport() {
+        return transport;
+    }
+
+    public DatagramLink getDatagramLink() {
+        return datagramLink;
+    }
+
+    protected void setDatagramLink(DatagramLink datagramLink) {
+        closeDatagramLink();
+        this.datagramLink = datagramLink;
+    }
+
+    public boolean isDatagramBound() {
+        DatagramLink link = datagramLink;
+        return link != null && link.isAcknowledged();
+    }
+
+    public TlsConfig getTlsConfig() {
+        return tlsConfig;
+    }
+
+    public void setTlsConfig(TlsConfig tlsConfig) {
+        this.tlsConfig = tlsConfig;
     }
 
     public long getBytesReceived() {
-        return bytesReceived;
+        return metrics.getBytesReceived();
     }
 
     public long getBytesSent() {
-        return bytesSent;
+        return metrics.getBytesSent();
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public String getIdentity() {
+        return identity;
+    }
+
+    public void setIdentity(String identity) {
+        if (identity != null && (identity.isEmpty() || identity.getBytes(StandardCharsets.UTF_8).length > Short.MAX_VALUE)) {
+            throw new IllegalArgumentException();
+        }
+        this.identity = identity;
+        if (identity != null && transport != null) {
+            sendIdentity(identity);
+        }
+    }
+
+    public int getStateSnapshotInterval() {
+        return stateSnapshotInterval;
+    }
+
+    public void setStateSnapshotInterval(int stateSnapshotInterval) {
+        if (stateSnapshotInterval < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.stateSnapshotInterval = stateSnapshotInterval;
+    }
+
+    public TrafficRecorder getTrafficRecorder() {
+        return trafficRecorder;
+    }
+
+    public void setTrafficRecorder(TrafficRecorder trafficRecorder) {
+        this.trafficRecorder = trafficRecorder;
+    }
+
+    public boolean isRelayAvailable() {
+        return relayAvailable;
+    }
+
+    public boolean isChecksumEnabled() {
+        return checksumEnabled;
+    }
+
+    public void setChecksumEnabled(boolean checksumEnabled) {
+        this.checksumEnabled = checksumEnabled;
     }
 
     public int getReceiveBufferSize() {
@@ -506,6 +1562,10 @@ public class Client {
             throw new IllegalArgumentException();
         }
         this.receiveBufferSize = receiveBufferSize;
+        FrameDecoder decoder = receiveDecoder;
+        if (decoder != null) {
+            decoder.setMinCapacity(receiveBufferSize);
+        }
     }
 
     public int getSendBufferSize() {
@@ -523,11 +1583,20 @@ public class Client {
         if (bufferSize < 8 || bufferSize > 65536) {
             throw new IllegalArgumentException();
         }
-        this.receiveBufferSize = bufferSize;
+        setReceiveBufferSize(bufferSize);
         this.sendBufferSize = bufferSize;
     }
 
     public boolean isReceiving() {
         return (receiveThread != null && receiveThread.isAlive() && isReceiving);
     }
+
+    private static final class StateVersion {
+
+        private long version;
+        private byte[] data;
+        private int deltas;
+
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package eznetworking.client.events;
+
+import eznetworking.client.Client;
+import eznetworking.packet.FrameBuffer;
+
+public interface BytesViewReceived {
+    public void received(Client sender, FrameBuffer buffer);
+}
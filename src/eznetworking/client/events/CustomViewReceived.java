@@ -0,0 +1,8 @@
+package eznetworking.client.events;
+
+import eznetworking.client.Client;
+import eznetworking.packet.FrameBuffer;
+
+public interface CustomViewReceived {
+    public void received(Client sender, int type, FrameBuffer buffer);
+}
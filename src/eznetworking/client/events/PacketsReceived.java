@@ -0,0 +1,10 @@
+package eznetworking.client.events;
+
+import java.util.List;
+
+import eznetworking.client.Client;
+import eznetworking.packet.Packet;
+
+public interface PacketsReceived {
+    public void received(Client sender, List<Packet> packets);
+}
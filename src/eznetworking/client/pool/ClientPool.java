@@ -0,0 +1,302 @@
+package eznetworking.client.pool;
+
+import java.io.Serializable;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import eznetworking.client.Client;
+import eznetworking.packet.Packet;
+
+public class ClientPool implements Iterable<Client> {
+
+    private final String host;
+    private final int port;
+    private final int size;
+
+    private final AtomicReferenceArray<Client> clients;
+    private final AtomicIntegerArray inFlight;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private SelectionStrategy selectionStrategy = SelectionStrategy.LEAST_LOADED;
+    private Consumer<Client> clientInitializer = (c) -> {
+    };
+
+    private final ScheduledExecutorService executor;
+    private ScheduledFuture<?> healthCheck;
+    private long healthCheckInterval = 5000;
+    private volatile boolean closed;
+
+    public ClientPool(String host, int port, int size) {
+        if (host == null || host.trim().isEmpty() || port < 1 || port > 65535 || size < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.host = host;
+        this.port = port;
+        this.size = size;
+        this.clients = new AtomicReferenceArray<>(size);
+        this.inFlight = new AtomicIntegerArray(size);
+        this.executor = Executors.newSingleThreadScheduledExecutor((r) -> {
+            Thread t = new Thread(r, "ClientPool-" + host + ":" + port);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public boolean warmUp() {
+        boolean result = true;
+        for (int i = 0; i < size; i++) {
+            result &= (getOrConnect(i) != null);
+        }
+        return result;
+    }
+
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            executor.shutdownNow();
+            for (int i = 0; i < size; i++) {
+                Client client = clients.getAndSet(i, null);
+                if (client != null) {
+                    client.disconnect();
+                }
+            }
+        }
+    }
+
+    public boolean sendBytes(byte[] data) {
+        return send((c) -> c.sendBytes(data));
+    }
+
+    public boolean sendPacket(Packet packet) {
+        return send((c) -> c.sendPacket(packet));
+    }
+
+    public Packet sendPacket(Packet packet, long timeout) throws InterruptedException, TimeoutException {
+        if (packet == null || timeout < 0) {
+            throw new IllegalArgumentException();
+        }
+        Selection selection = select();
+        if (selection == null) {
+            return null;
+        }
+        try {
+            return selection.client.sendPacket(packet, timeout);
+        } finally {
+            inFlight.decrementAndGet(selection.slot);
+        }
+    }
+
+    public boolean sendCustom(int type, byte[] data) {
+        return send((c) -> c.sendCustom(type, data));
+    }
+
+    public <T extends Serializable> boolean sendCustom(int type, T tClass) {
+        return send((c) -> c.sendCustom(type, tClass));
+    }
+
+    private boolean send(Function<Client, Boolean> action) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Selection selection = select();
+            if (selection == null) {
+                return false;
+            }
+            try {
+                if (action.apply(selection.client)) {
+                    return true;
+                }
+            } finally {
+                inFlight.decrementAndGet(selection.slot);
+            }
+        }
+        return false;
+    }
+
+    private Selection select() {
+        if (closed) {
+            throw new IllegalStateException();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        int slot = start;
+        if (selectionStrategy == SelectionStrategy.LEAST_LOADED) {
+            int lowest = Integer.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                int candidate = (start + i) % size;
+                int load = inFlight.get(candidate);
+                if (load < lowest) {
+                    lowest = load;
+                    slot = candidate;
+                }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            int candidate = (slot + i) % size;
+            inFlight.incrementAndGet(candidate);
+            Client client = getOrConnect(candidate);
+            if (client != null) {
+                return new Selection(candidate, client);
+            }
+            inFlight.decrementAndGet(candidate);
+        }
+        return null;
+    }
+
+    private Client getOrConnect(int slot) {
+        Client client = clients.get(slot);
+        if (client != null || closed) {
+            return client;
+        }
+        Client created = new Client(host, port);
+        clientInitializer.accept(created);
+        created.addClientDisconnectedListener((c) -> replace(slot, created));
+        if (!created.connect(true)) {
+            return null;
+        }
+        if (!clients.compareAndSet(slot, null, created)) {
+            created.disconnect();
+            return clients.get(slot);
+        }
+        if (closed) {
+            clients.compareAndSet(slot, created, null);
+            created.disconnect();
+            return null;
+        }
+        startHealthCheck();
+        return created;
+    }
+
+    private void replace(int slot, Client client) {
+        if (clients.compareAndSet(slot, client, null) && !closed) {
+            try {
+                executor.execute(() -> getOrConnect(slot));
+            } catch (Exception ex) {
+            }
+        }
+    }
+
+    private synchronized void startHealthCheck() {
+        if (healthCheck == null && healthCheckInterval > 0 && !closed) {
+            healthCheck = executor.scheduleWithFixedDelay(this::checkHealth, healthCheckInterval, healthCheckInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void checkHealth() {
+        for (int i = 0; i < size; i++) {
+            Client client = clients.get(i);
+            if (client != null && !isHealthy(client)) {
+                client.disconnect();
+                replace(i, client);
+            }
+        }
+    }
+
+    private static boolean isHealthy(Client client) {
+        Socket socket = client.getSocket();
+        return socket != null && socket.isConnected() && !socket.isClosed() && client.isReceiving();
+    }
+
+    @Override
+    public Iterator<Client> iterator() {
+        ArrayList<Client> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Client client = clients.get(i);
+            if (client != null) {
+                result.add(client);
+            }
+        }
+        return result.iterator();
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getConnectedCount() {
+        int result = 0;
+        for (int i = 0; i < size; i++) {
+            if (clients.get(i) != null) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    public int getInFlight() {
+        int result = 0;
+        for (int i = 0; i < size; i++) {
+            result += inFlight.get(i);
+        }
+        return result;
+    }
+
+    public SelectionStrategy getSelectionStrategy() {
+        return selectionStrategy;
+    }
+
+    public void setSelectionStrategy(SelectionStrategy selectionStrategy) {
+        if (selectionStrategy == null) {
+            throw new IllegalArgumentException();
+        }
+        this.selectionStrategy = selectionStrategy;
+    }
+
+    public Consumer<Client> getClientInitializer() {
+        return clientInitializer;
+    }
+
+    public void setClientInitializer(Consumer<Client> clientInitializer) {
+        if (clientInitializer != null) {
+            this.clientInitializer = clientInitializer;
+        }
+    }
+
+    public long getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    public synchronized void setHealthCheckInterval(long healthCheckInterval) {
+        if (healthCheckInterval < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.healthCheckInterval = healthCheckInterval;
+        if (healthCheck != null) {
+            healthCheck.cancel(false);
+            healthCheck = null;
+            startHealthCheck();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private static final class Selection {
+
+        private final int slot;
+        private final Client client;
+
+        private Selection(int slot, Client client) {
+            this.slot = slot;
+            this.client = client;
+        }
+
+    }
+}
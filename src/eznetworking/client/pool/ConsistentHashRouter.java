@@ -0,0 +1,290 @@
+package eznetworking.client.pool;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import eznetworking.client.Client;
+import eznetworking.client.events.ClientConnected;
+import eznetworking.client.events.ClientDisconnected;
+import eznetworking.packet.Packet;
+
+public class ConsistentHashRouter {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    private final Function<Packet, String> keyFunction;
+    private final int virtualNodes;
+
+    private final LinkedHashMap<String, Member> members = new LinkedHashMap<>();
+    private volatile Ring ring = new Ring(new long[0], new Member[0]);
+
+    private final ScheduledExecutorService executor;
+    private ScheduledFuture<?> reconnect;
+    private long reconnectInterval = 2000;
+    private volatile boolean closed;
+
+    public ConsistentHashRouter(Function<Packet, String> keyFunction) {
+        this(keyFunction, DEFAULT_VIRTUAL_NODES);
+    }
+
+    public ConsistentHashRouter(Function<Packet, String> keyFunction, int virtualNodes) {
+        if (keyFunction == null || virtualNodes < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.keyFunction = keyFunction;
+        this.virtualNodes = virtualNodes;
+        this.executor = Executors.newSingleThreadScheduledExecutor((r) -> {
+            Thread t = new Thread(r, "ConsistentHashRouter");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static Function<Packet, String> byHeader() {
+        return Packet::getHeader;
+    }
+
+    public static Function<Packet, String> bySource() {
+        return Packet::getSource;
+    }
+
+    public static Function<Packet, String> byDestination() {
+        return Packet::getDestination;
+    }
+
+    public synchronized void addClient(String name, Client client) {
+        if (name == null || name.trim().isEmpty() || client == null || members.containsKey(name)) {
+            throw new IllegalArgumentException();
+        }
+        if (closed) {
+            throw new IllegalStateException();
+        }
+        Member member = new Member(name, client);
+        client.addClientConnectedListener(member.connected);
+        client.addClientDisconnectedListener(member.disconnected);
+        members.put(name, member);
+        rebuild();
+        startReconnect();
+    }
+
+    public synchronized Client removeClient(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException();
+        }
+        Member member = members.remove(name);
+        if (member == null) {
+            return null;
+        }
+        member.client.removeClientConnectedListener(member.connected);
+        member.client.removeClientDisconnectedListener(member.disconnected);
+        rebuild();
+        return member.client;
+    }
+
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            executor.shutdownNow();
+            for (Member member : members.values()) {
+                member.client.disconnect();
+            }
+        }
+    }
+
+    public Client select(Packet packet) {
+        if (packet == null) {
+            throw new IllegalArgumentException();
+        }
+        String key = keyFunction.apply(packet);
+        return select((key != null) ? key : packet.getId());
+    }
+
+    public Client select(String key) {
+        if (key == null) {
+            throw new IllegalArgumentException();
+        }
+        if (closed) {
+            throw new IllegalStateException();
+        }
+        Ring current = ring;
+        int size = current.hashes.length;
+        if (size == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(current.hashes, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        for (int i = 0; i < size; i++) {
+            Member member = current.owners[(index + i) % size];
+            if (member.up) {
+                return member.client;
+            }
+        }
+        return null;
+    }
+
+    public boolean sendPacket(Packet packet) {
+        Client client = select(packet);
+        return client != null && client.sendPacket(packet);
+    }
+
+    public Packet sendPacket(Packet packet, long timeout) throws InterruptedException, TimeoutException {
+        if (timeout < 0) {
+            throw new IllegalArgumentException();
+        }
+        Client client = select(packet);
+        return (client != null) ? client.sendPacket(packet, timeout) : null;
+    }
+
+    public boolean sendBytes(String key, byte[] data) {
+        Client client = select(key);
+        return client != null && client.sendBytes(data);
+    }
+
+    public boolean sendCustom(String key, int type, byte[] data) {
+        Client client = select(key);
+        return client != null && client.sendCustom(type, data);
+    }
+
+    private void rebuild() {
+        TreeMap<Long, Member> points = new TreeMap<>();
+        for (Member member : members.values()) {
+            for (int v = 0; v < virtualNodes; v++) {
+                points.putIfAbsent(hash(member.name + "#" + v), member);
+            }
+        }
+        long[] hashes = new long[points.size()];
+        Member[] owners = new Member[points.size()];
+        int i = 0;
+        for (Map.Entry<Long, Member> point : points.entrySet()) {
+            hashes[i] = point.getKey();
+            owners[i++] = point.getValue();
+        }
+        ring = new Ring(hashes, owners);
+    }
+
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private synchronized void startReconnect() {
+        if (reconnect == null && reconnectInterval > 0 && !closed) {
+            reconnect = executor.scheduleWithFixedDelay(this::reconnectDown, reconnectInterval, reconnectInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void reconnectDown() {
+        List<Member> down = new ArrayList<>();
+        synchronized (this) {
+            for (Member member : members.values()) {
+                if (!member.up) {
+                    down.add(member);
+                }
+            }
+        }
+        for (Member member : down) {
+            if (!closed) {
+                member.client.connect(true);
+            }
+        }
+    }
+
+    public Function<Packet, String> getKeyFunction() {
+        return keyFunction;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public synchronized Map<String, Client> getClients() {
+        LinkedHashMap<String, Client> result = new LinkedHashMap<>();
+        for (Member member : members.values()) {
+            result.put(member.name, member.client);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    public synchronized int getAvailableCount() {
+        int result = 0;
+        for (Member member : members.values()) {
+            if (member.up) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    public long getReconnectInterval() {
+        return reconnectInterval;
+    }
+
+    public synchronized void setReconnectInterval(long reconnectInterval) {
+        if (reconnectInterval < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.reconnectInterval = reconnectInterval;
+        if (reconnect != null) {
+            reconnect.cancel(false);
+            reconnect = null;
+            startReconnect();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private static final class Member {
+
+        private final String name;
+        private final Client client;
+        private volatile boolean up;
+
+        private final ClientConnected connected = (c) -> up = true;
+        private final ClientDisconnected disconnected = (c) -> up = false;
+
+        private Member(String name, Client client) {
+            this.name = name;
+            this.client = client;
+            this.up = client.getTransport() != null;
+        }
+
+    }
+
+    private static final class Ring {
+
+        private final long[] hashes;
+        private final Member[] owners;
+
+        private Ring(long[] hashes, Member[] owners) {
+            this.hashes = hashes;
+            this.owners = owners;
+        }
+
+    }
+
+}
@@ -0,0 +1,7 @@
+package eznetworking.client.pool;
+
+public enum SelectionStrategy {
+
+    ROUND_ROBIN, LEAST_LOADED;
+
+}
@@ -0,0 +1,126 @@
+package eznetworking.flow;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.function.Predicate;
+
+public final class InboundPublisher<T> implements Flow.Publisher<T> {
+
+    private final Predicate<T> filter;
+    private final CopyOnWriteArrayList<InboundSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    public InboundPublisher(Predicate<T> filter) {
+        if (filter == null) {
+            throw new IllegalArgumentException();
+        }
+        this.filter = filter;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException();
+        }
+        InboundSubscription subscription = new InboundSubscription(subscriber);
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+        if (closed) {
+            subscription.complete();
+        }
+    }
+
+    public void publish(T item) throws InterruptedException {
+        if (closed || subscriptions.isEmpty() || !filter.test(item)) {
+            return;
+        }
+        for (InboundSubscription subscription : subscriptions) {
+            subscription.deliver(item);
+        }
+    }
+
+    public void close() {
+        closed = true;
+        for (InboundSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    private final class InboundSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Object deliverLock = new Object();
+        private long demand;
+        private boolean done;
+
+        private InboundSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                if (finish()) {
+                    subscriber.onError(new IllegalArgumentException("Non-positive request: " + n));
+                }
+                return;
+            }
+            synchronized (this) {
+                demand = (demand + n < 0) ? Long.MAX_VALUE : demand + n;
+                notifyAll();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            finish();
+        }
+
+        private void deliver(T item) throws InterruptedException {
+            synchronized (deliverLock) {
+                synchronized (this) {
+                    while (demand == 0 && !done) {
+                        wait();
+                    }
+                    if (done) {
+                        return;
+                    }
+                    demand--;
+                }
+                try {
+                    subscriber.onNext(item);
+                } catch (RuntimeException ex) {
+                    finish();
+                }
+            }
+        }
+
+        private void complete() {
+            if (finish()) {
+                synchronized (deliverLock) {
+                    subscriber.onComplete();
+                }
+            }
+        }
+
+        private synchronized boolean finish() {
+            if (done) {
+                return false;
+            }
+            done = true;
+            subscriptions.remove(this);
+            notifyAll();
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,75 @@
+package eznetworking.flow;
+
+import java.util.concurrent.Flow;
+import java.util.function.Predicate;
+
+public final class OutboundSubscriber<T> implements Flow.Subscriber<T> {
+
+    private final Predicate<T> sender;
+    private final int window;
+
+    private Flow.Subscription subscription;
+    private int sent;
+    private volatile boolean done;
+    private volatile Throwable error;
+
+    public OutboundSubscriber(Predicate<T> sender, int window) {
+        if (sender == null || window < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.sender = sender;
+        this.window = window;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (subscription == null) {
+            throw new NullPointerException();
+        }
+        if (this.subscription != null || done) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(window);
+    }
+
+    @Override
+    public void onNext(T item) {
+        if (item == null) {
+            throw new NullPointerException();
+        }
+        if (done) {
+            return;
+        }
+        if (!sender.test(item)) {
+            done = true;
+            subscription.cancel();
+            return;
+        }
+        if (++sent >= Math.max(1, window / 2)) {
+            subscription.request(sent);
+            sent = 0;
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        error = throwable;
+        done = true;
+    }
+
+    @Override
+    public void onComplete() {
+        done = true;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+}
@@ -0,0 +1,117 @@
+package eznetworking.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class LatencyHistograms {
+
+    public static final int MAX_KEYS = 1024;
+    public static final String OTHER_KEY = "*";
+
+    private static final String REPLY_PREFIX = "REPLY::";
+    private static final String REPLY_KEY = REPLY_PREFIX + OTHER_KEY;
+
+    private final LatencyHistograms parent;
+
+    private final ConcurrentHashMap<String, LatencyHistogram> roundTrips = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> packetListeners = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, LatencyHistogram> customListeners = new ConcurrentHashMap<>();
+    private final LatencyHistogram bytesListeners = new LatencyHistogram();
+
+    public LatencyHistograms() {
+        this(null);
+    }
+
+    public LatencyHistograms(LatencyHistograms parent) {
+        this.parent = parent;
+    }
+
+    public void recordRoundTrip(String header, long nanos) {
+        histogram(roundTrips, key(header), OTHER_KEY).record(nanos);
+        if (parent != null) {
+            parent.recordRoundTrip(header, nanos);
+        }
+    }
+
+    public void recordPacketListener(String header, long nanos) {
+        histogram(packetListeners, key(header), OTHER_KEY).record(nanos);
+        if (parent != null) {
+            parent.recordPacketListener(header, nanos);
+        }
+    }
+
+    public void recordCustomListener(int type, long nanos) {
+        histogram(customListeners, type, 0).record(nanos);
+        if (parent != null) {
+            parent.recordCustomListener(type, nanos);
+        }
+    }
+
+    public void recordBytesListener(long nanos) {
+        bytesListeners.record(nanos);
+        if (parent != null) {
+            parent.recordBytesListener(nanos);
+        }
+    }
+
+    public LatencyHistogram getRoundTrip(String header) {
+        return roundTrips.get(key(header));
+    }
+
+    public LatencyHistogram getPacketListener(String header) {
+        return packetListeners.get(key(header));
+    }
+
+    public LatencyHistogram getCustomListener(int type) {
+        return customListeners.get(type);
+    }
+
+    public LatencyHistogram getBytesListener() {
+        return bytesListeners;
+    }
+
+    public Map<String, HistogramSnapshot> snapshotRoundTrips(boolean reset) {
+        return snapshot(roundTrips, reset);
+    }
+
+    public Map<String, HistogramSnapshot> snapshotPacketListeners(boolean reset) {
+        return snapshot(packetListeners, reset);
+    }
+
+    public Map<Integer, HistogramSnapshot> snapshotCustomListeners(boolean reset) {
+        return snapshot(customListeners, reset);
+    }
+
+    public HistogramSnapshot snapshotBytesListener(boolean reset) {
+        return reset ? bytesListeners.snapshotAndReset() : bytesListeners.snapshot();
+    }
+
+    public void reset() {
+        roundTrips.values().forEach(LatencyHistogram::reset);
+        packetListeners.values().forEach(LatencyHistogram::reset);
+        customListeners.values().forEach(LatencyHistogram::reset);
+        bytesListeners.reset();
+    }
+
+    private static String key(String header) {
+        if (header == null) {
+            return OTHER_KEY;
+        }
+        return header.startsWith(REPLY_PREFIX) ? REPLY_KEY : header;
+    }
+
+    private static <K> LatencyHistogram histogram(ConcurrentHashMap<K, LatencyHistogram> histograms, K key, K overflowKey) {
+        LatencyHistogram histogram = histograms.get(key);
+        if (histogram != null) {
+            return histogram;
+        }
+        return histograms.computeIfAbsent((histograms.size() < MAX_KEYS) ? key : overflowKey, (k) -> new LatencyHistogram());
+    }
+
+    private static <K> Map<K, HistogramSnapshot> snapshot(ConcurrentHashMap<K, LatencyHistogram> histograms, boolean reset) {
+        HashMap<K, HistogramSnapshot> result = new HashMap<>();
+        histograms.forEach((k, h) -> result.put(k, reset ? h.snapshotAndReset() : h.snapshot()));
+        return result;
+    }
+}
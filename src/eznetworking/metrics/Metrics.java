@@ -0,0 +1,243 @@
+package eznetworking.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Metrics implements MetricsMXBean {
+
+    private final Metrics parent;
+
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder framesReceived = new LongAdder();
+    private final LongAdder framesSent = new LongAdder();
+    private final LongAdder listenerInvocations = new LongAdder();
+    private final LongAdder listenerTimeNanos = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder pendingRequests = new LongAdder();
+    private final LongAdder throttles = new LongAdder();
+    private final LongAdder throttledNanos = new LongAdder();
+
+    private final ConcurrentHashMap<Integer, LongAdder> framesReceivedByType = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, LongAdder> framesSentByType = new ConcurrentHashMap<>();
+
+    private volatile boolean latenciesEnabled;
+    private volatile LatencyHistograms latencies;
+
+    public Metrics() {
+        this(null);
+    }
+
+    public Metrics(Metrics parent) {
+        this.parent = parent;
+        this.latenciesEnabled = (parent == null);
+    }
+
+    public void bytesReceived(int count) {
+        bytesReceived.add(count);
+        if (parent != null) {
+            parent.bytesReceived(count);
+        }
+    }
+
+    public void bytesSent(int count) {
+        bytesSent.add(count);
+        if (parent != null) {
+            parent.bytesSent(count);
+        }
+    }
+
+    public void frameReceived(int type) {
+        framesReceived.increment();
+        counter(framesReceivedByType, type).increment();
+        if (parent != null) {
+            parent.frameReceived(type);
+        }
+    }
+
+    public void frameSent(int type) {
+        framesSent.increment();
+        counter(framesSentByType, type).increment();
+        if (parent != null) {
+            parent.frameSent(type);
+        }
+    }
+
+    public void listenerExecuted(long nanos) {
+        listenerInvocations.increment();
+        listenerTimeNanos.add(nanos);
+        if (parent != null) {
+            parent.listenerExecuted(nanos);
+        }
+    }
+
+    public void roundTripCompleted(String header, long nanos) {
+        LatencyHistograms histograms = recorder();
+        if (histograms != null) {
+            histograms.recordRoundTrip(header, nanos);
+        }
+    }
+
+    public void bytesListenerExecuted(long nanos) {
+        LatencyHistograms histograms = recorder();
+        if (histograms != null) {
+            histograms.recordBytesListener(nanos);
+        }
+        listenerExecuted(nanos);
+    }
+
+    public void packetListenerExecuted(String header, long nanos) {
+        LatencyHistograms histograms = recorder();
+        if (histograms != null) {
+            histograms.recordPacketListener(header, nanos);
+        }
+        listenerExecuted(nanos);
+    }
+
+    public void customListenerExecuted(int type, long nanos) {
+        LatencyHistograms histograms = recorder();
+        if (histograms != null) {
+            histograms.recordCustomListener(type, nanos);
+        }
+        listenerExecuted(nanos);
+    }
+
+    public void errorOccurred() {
+        errors.increment();
+        if (parent != null) {
+            parent.errorOccurred();
+        }
+    }
+
+    public void requestStarted() {
+        pendingRequests.increment();
+        if (parent != null) {
+            parent.requestStarted();
+        }
+    }
+
+    public void requestFinished() {
+        pendingRequests.decrement();
+        if (parent != null) {
+            parent.requestFinished();
+        }
+    }
+
+    public void throttled(long nanos) {
+        throttles.increment();
+        throttledNanos.add(nanos);
+        if (parent != null) {
+            parent.throttled(nanos);
+        }
+    }
+
+    private LatencyHistograms recorder() {
+        if (!latenciesEnabled) {
+            return (parent != null) ? parent.recorder() : null;
+        }
+        LatencyHistograms result = latencies;
+        if (result == null) {
+            synchronized (this) {
+                result = latencies;
+                if (result == null) {
+                    result = new LatencyHistograms((parent != null) ? parent.recorder() : null);
+                    latencies = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static LongAdder counter(ConcurrentHashMap<Integer, LongAdder> counters, int type) {
+        LongAdder counter = counters.get(type);
+        return (counter != null) ? counter : counters.computeIfAbsent(type, (t) -> new LongAdder());
+    }
+
+    private static Map<Integer, Long> sum(ConcurrentHashMap<Integer, LongAdder> counters) {
+        HashMap<Integer, Long> result = new HashMap<>();
+        counters.forEach((t, c) -> result.put(t, c.sum()));
+        return result;
+    }
+
+    // ---
+
+    @Override
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    @Override
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    @Override
+    public long getFramesReceived() {
+        return framesReceived.sum();
+    }
+
+    @Override
+    public long getFramesSent() {
+        return framesSent.sum();
+    }
+
+    public long getFramesReceived(int type) {
+        LongAdder counter = framesReceivedByType.get(type);
+        return (counter != null) ? counter.sum() : 0;
+    }
+
+    public long getFramesSent(int type) {
+        LongAdder counter = framesSentByType.get(type);
+        return (counter != null) ? counter.sum() : 0;
+    }
+
+    @Override
+    public long getListenerInvocations() {
+        return listenerInvocations.sum();
+    }
+
+    @Override
+    public long getListenerTimeNanos() {
+        return listenerTimeNanos.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getPendingRequests() {
+        return pendingRequests.sum();
+    }
+
+    @Override
+    public long getThrottles() {
+        return throttles.sum();
+    }
+
+    @Override
+    public long getThrottledNanos() {
+        return throttledNanos.sum();
+    }
+
+    public LatencyHistograms getLatencies() {
+        return latenciesEnabled ? recorder() : null;
+    }
+
+    public boolean isLatenciesEnabled() {
+        return latenciesEnabled;
+    }
+
+    public void setLatenciesEnabled(boolean latenciesEnabled) {
+        this.latenciesEnabled = latenciesEnabled;
+    }
+
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(System.currentTimeMillis(), getBytesReceived(), getBytesSent(), getFramesReceived(), getFramesSent(),
+                sum(framesReceivedByType), sum(framesSentByType), getListenerInvocations(), getListenerTimeNanos(), getErrors(), getPendingRequests(),
+                getThrottles(), getThrottledNanos());
+    }
+}
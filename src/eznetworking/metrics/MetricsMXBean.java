@@ -0,0 +1,25 @@
+package eznetworking.metrics;
+
+public interface MetricsMXBean {
+
+    public long getBytesReceived();
+
+    public long getBytesSent();
+
+    public long getFramesReceived();
+
+    public long getFramesSent();
+
+    public long getListenerInvocations();
+
+    public long getListenerTimeNanos();
+
+    public long getErrors();
+
+    public long getPendingRequests();
+
+    public long getThrottles();
+
+    public long getThrottledNanos();
+
+}
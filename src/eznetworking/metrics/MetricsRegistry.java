@@ -0,0 +1,54 @@
+package eznetworking.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public final class MetricsRegistry {
+
+    public static final String DOMAIN = "eznetworking";
+
+    public static ObjectName objectName(String type, String id) {
+        try {
+            return new ObjectName(String.format("%s:type=%s,id=%s", DOMAIN, type, ObjectName.quote(id)));
+        } catch (Exception ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
+    public static boolean register(Object mbean, String type, String id) {
+        if (mbean == null || type == null || id == null) {
+            throw new IllegalArgumentException();
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = objectName(type, id);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(mbean, name);
+                return true;
+            }
+            return false;
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
+    public static boolean unregister(String type, String id) {
+        if (type == null || id == null) {
+            throw new IllegalArgumentException();
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = objectName(type, id);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+                return true;
+            }
+            return false;
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
+}
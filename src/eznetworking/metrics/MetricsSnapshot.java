@@ -0,0 +1,101 @@
+package eznetworking.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+public final class MetricsSnapshot {
+
+    private final long timestamp;
+    private final long bytesReceived;
+    private final long bytesSent;
+    private final long framesReceived;
+    private final long framesSent;
+    private final Map<Integer, Long> framesReceivedByType;
+    private final Map<Integer, Long> framesSentByType;
+    private final long listenerInvocations;
+    private final long listenerTimeNanos;
+    private final long errors;
+    private final long pendingRequests;
+    private final long throttles;
+    private final long throttledNanos;
+
+    MetricsSnapshot(long timestamp, long bytesReceived, long bytesSent, long framesReceived, long framesSent, Map<Integer, Long> framesReceivedByType,
+            Map<Integer, Long> framesSentByType, long listenerInvocations, long listenerTimeNanos, long errors, long pendingRequests,
+            long throttles, long throttledNanos) {
+        this.timestamp = timestamp;
+        this.bytesReceived = bytesReceived;
+        this.bytesSent = bytesSent;
+        this.framesReceived = framesReceived;
+        this.framesSent = framesSent;
+        this.framesReceivedByType = Collections.unmodifiableMap(framesReceivedByType);
+        this.framesSentByType = Collections.unmodifiableMap(framesSentByType);
+        this.listenerInvocations = listenerInvocations;
+        this.listenerTimeNanos = listenerTimeNanos;
+        this.errors = errors;
+        this.pendingRequests = pendingRequests;
+        this.throttles = throttles;
+        this.throttledNanos = throttledNanos;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getFramesReceived() {
+        return framesReceived;
+    }
+
+    public long getFramesSent() {
+        return framesSent;
+    }
+
+    public Map<Integer, Long> getFramesReceivedByType() {
+        return framesReceivedByType;
+    }
+
+    public Map<Integer, Long> getFramesSentByType() {
+        return framesSentByType;
+    }
+
+    public long getListenerInvocations() {
+        return listenerInvocations;
+    }
+
+    public long getListenerTimeNanos() {
+        return listenerTimeNanos;
+    }
+
+    public double getAverageListenerTimeNanos() {
+        return (listenerInvocations > 0) ? (double) listenerTimeNanos / listenerInvocations : 0;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getPendingRequests() {
+        return pendingRequests;
+    }
+
+    public long getThrottles() {
+        return throttles;
+    }
+
+    public long getThrottledNanos() {
+        return throttledNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MetricsSnapshot[bytesReceived=%d, bytesSent=%d, framesReceived=%d, framesSent=%d, listenerInvocations=%d, listenerTimeNanos=%d, errors=%d, pendingRequests=%d, throttles=%d, throttledNanos=%d]",
+                bytesReceived, bytesSent, framesReceived, framesSent, listenerInvocations, listenerTimeNanos, errors, pendingRequests, throttles, throttledNanos);
+    }
+}
@@ -0,0 +1,128 @@
+package eznetworking.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+public class ServerMetrics implements ServerMetricsMXBean {
+
+    private final Metrics totals = new Metrics();
+
+    private final LongAdder connects = new LongAdder();
+    private final LongAdder disconnects = new LongAdder();
+    private final LongAdder rejectedHandshakes = new LongAdder();
+    private final LongAdder relayedPackets = new LongAdder();
+
+    private final IntSupplier activeConnections;
+
+    public ServerMetrics(IntSupplier activeConnections) {
+        if (activeConnections == null) {
+            throw new IllegalArgumentException();
+        }
+        this.activeConnections = activeConnections;
+    }
+
+    public void clientConnected() {
+        connects.increment();
+    }
+
+    public void clientDisconnected() {
+        disconnects.increment();
+    }
+
+    public void handshakeRejected() {
+        rejectedHandshakes.increment();
+    }
+
+    public void packetRelayed() {
+        relayedPackets.increment();
+    }
+
+    public Metrics getTotals() {
+        return totals;
+    }
+
+    public LatencyHistograms getLatencies() {
+        return totals.getLatencies();
+    }
+
+    // ---
+
+    @Override
+    public long getConnects() {
+        return connects.sum();
+    }
+
+    @Override
+    public long getDisconnects() {
+        return disconnects.sum();
+    }
+
+    @Override
+    public long getRejectedHandshakes() {
+        return rejectedHandshakes.sum();
+    }
+
+    @Override
+    public long getRelayedPackets() {
+        return relayedPackets.sum();
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return activeConnections.getAsInt();
+    }
+
+    @Override
+    public long getBytesReceived() {
+        return totals.getBytesReceived();
+    }
+
+    @Override
+    public long getBytesSent() {
+        return totals.getBytesSent();
+    }
+
+    @Override
+    public long getFramesReceived() {
+        return totals.getFramesReceived();
+    }
+
+    @Override
+    public long getFramesSent() {
+        return totals.getFramesSent();
+    }
+
+    @Override
+    public long getListenerInvocations() {
+        return totals.getListenerInvocations();
+    }
+
+    @Override
+    public long getListenerTimeNanos() {
+        return totals.getListenerTimeNanos();
+    }
+
+    @Override
+    public long getErrors() {
+        return totals.getErrors();
+    }
+
+    @Override
+    public long getPendingRequests() {
+        return totals.getPendingRequests();
+    }
+
+    @Override
+    public long getThrottles() {
+        return totals.getThrottles();
+    }
+
+    @Override
+    public long getThrottledNanos() {
+        return totals.getThrottledNanos();
+    }
+
+    public ServerMetricsSnapshot snapshot() {
+        return new ServerMetricsSnapshot(getConnects(), getDisconnects(), getRejectedHandshakes(), getRelayedPackets(), getActiveConnections(), totals.snapshot());
+    }
+}
@@ -0,0 +1,15 @@
+package eznetworking.metrics;
+
+public interface ServerMetricsMXBean extends MetricsMXBean {
+
+    public long getConnects();
+
+    public long getDisconnects();
+
+    public long getRejectedHandshakes();
+
+    public long getRelayedPackets();
+
+    public int getActiveConnections();
+
+}
@@ -0,0 +1,54 @@
+package eznetworking.metrics;
+
+public final class ServerMetricsSnapshot {
+
+    private final long connects;
+    private final long disconnects;
+    private final long rejectedHandshakes;
+    private final long relayedPackets;
+    private final int activeConnections;
+    private final MetricsSnapshot totals;
+
+    ServerMetricsSnapshot(long connects, long disconnects, long rejectedHandshakes, long relayedPackets, int activeConnections, MetricsSnapshot totals) {
+        this.connects = connects;
+        this.disconnects = disconnects;
+        this.rejectedHandshakes = rejectedHandshakes;
+        this.relayedPackets = relayedPackets;
+        this.activeConnections = activeConnections;
+        this.totals = totals;
+    }
+
+    public long getTimestamp() {
+        return totals.getTimestamp();
+    }
+
+    public long getConnects() {
+        return connects;
+    }
+
+    public long getDisconnects() {
+        return disconnects;
+    }
+
+    public long getRejectedHandshakes() {
+        return rejectedHandshakes;
+    }
+
+    public long getRelayedPackets() {
+        return relayedPackets;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public MetricsSnapshot getTotals() {
+        return totals;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ServerMetricsSnapshot[connects=%d, disconnects=%d, rejectedHandshakes=%d, relayedPackets=%d, activeConnections=%d, totals=%s]",
+                connects, disconnects, rejectedHandshakes, relayedPackets, activeConnections, totals);
+    }
+}
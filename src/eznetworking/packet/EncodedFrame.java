@@ -0,0 +1,47 @@
+package eznetworking.packet;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+public final class EncodedFrame {
+
+    private final int type;
+    private final byte[] payload;
+    private volatile byte[] plain;
+    private volatile byte[] checksummed;
+
+    public EncodedFrame(int type, byte[] payload) {
+        if (payload == null) {
+            throw new IllegalArgumentException();
+        }
+        this.type = type;
+        this.payload = payload;
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public byte[] getBytes(boolean checksum) {
+        byte[] bytes = checksum ? checksummed : plain;
+        if (bytes != null) {
+            return bytes;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(8 + payload.length + (checksum ? 4 : 0));
+        buffer.putInt(type).putInt(checksum ? payload.length | Integer.MIN_VALUE : payload.length).put(payload);
+        if (checksum) {
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.array(), 0, 8 + payload.length);
+            buffer.putInt((int) crc.getValue());
+            checksummed = buffer.array();
+        } else {
+            plain = buffer.array();
+        }
+        return buffer.array();
+    }
+
+}
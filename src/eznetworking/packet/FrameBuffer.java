@@ -0,0 +1,153 @@
+package eznetworking.packet;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.zip.Checksum;
+
+public final class FrameBuffer {
+
+    private static volatile boolean leakDetection;
+    private static volatile Consumer<Throwable> leakHandler;
+    private static final LongAdder leaks = new LongAdder();
+
+    private final byte[] array;
+    private final int offset;
+    private final int length;
+    private final AtomicInteger refCount = new AtomicInteger(1);
+    private final Cleaner.Cleanable cleanable;
+
+    public FrameBuffer(byte[] array, int offset, int length) {
+        if (array == null || offset < 0 || length < 0 || offset + length > array.length) {
+            throw new IllegalArgumentException();
+        }
+        this.array = array;
+        this.offset = offset;
+        this.length = length;
+        this.cleanable = (leakDetection) ? LeakTracker.CLEANER.register(this, new LeakTracker(refCount, new Throwable("FrameBuffer allocated here"))) : null;
+    }
+
+    public ByteBuffer getBuffer() {
+        ensureAccessible();
+        return ByteBuffer.wrap(array, offset, length).slice().asReadOnlyBuffer();
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public byte get(int index) {
+        ensureAccessible();
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return array[offset + index];
+    }
+
+    public byte[] toArray() {
+        ensureAccessible();
+        byte[] copy = new byte[length];
+        System.arraycopy(array, offset, copy, 0, length);
+        return copy;
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        ensureAccessible();
+        outputStream.write(array, offset, length);
+    }
+
+    public void update(Checksum checksum) {
+        ensureAccessible();
+        checksum.update(array, offset, length);
+    }
+
+    public int getRefCount() {
+        return refCount.get();
+    }
+
+    public FrameBuffer retain() {
+        int count;
+        do {
+            count = refCount.get();
+            if (count <= 0) {
+                throw new IllegalStateException("FrameBuffer already released");
+            }
+        } while (!refCount.compareAndSet(count, count + 1));
+        return this;
+    }
+
+    public boolean release() {
+        int count;
+        do {
+            count = refCount.get();
+            if (count <= 0) {
+                throw new IllegalStateException("FrameBuffer already released");
+            }
+        } while (!refCount.compareAndSet(count, count - 1));
+        if (count == 1 && cleanable != null) {
+            cleanable.clean();
+        }
+        return count == 1;
+    }
+
+    private void ensureAccessible() {
+        if (refCount.get() <= 0) {
+            throw new IllegalStateException("FrameBuffer already released");
+        }
+    }
+
+    public static boolean isLeakDetection() {
+        return leakDetection;
+    }
+
+    public static void setLeakDetection(boolean leakDetection) {
+        FrameBuffer.leakDetection = leakDetection;
+    }
+
+    public static Consumer<Throwable> getLeakHandler() {
+        return leakHandler;
+    }
+
+    public static void setLeakHandler(Consumer<Throwable> leakHandler) {
+        FrameBuffer.leakHandler = leakHandler;
+    }
+
+    public static long getLeakCount() {
+        return leaks.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FrameBuffer[length=%d, refCount=%d]", length, refCount.get());
+    }
+
+    private static final class LeakTracker implements Runnable {
+
+        private static final Cleaner CLEANER = Cleaner.create();
+
+        private final AtomicInteger refCount;
+        private final Throwable origin;
+
+        private LeakTracker(AtomicInteger refCount, Throwable origin) {
+            this.refCount = refCount;
+            this.origin = origin;
+        }
+
+        @Override
+        public void run() {
+            if (refCount.get() > 0) {
+                leaks.increment();
+                Consumer<Throwable> handler = leakHandler;
+                if (handler != null) {
+                    handler.accept(origin);
+                }
+            }
+        }
+
+    }
+
+}
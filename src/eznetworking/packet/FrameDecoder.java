@@ -0,0 +1,258 @@
+package eznetworking.packet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.function.IntConsumer;
+import java.util.zip.Checksum;
+
+import eznetworking.util.Progress;
+
+public final class FrameDecoder {
+
+    public static final int HEADER_SIZE = 8;
+    public static final int TRAILER_SIZE = 4;
+
+    private static final int MAX_CAPACITY = 1 << 20;
+    private static final int RESIZE_INTERVAL = 256;
+
+    private final Checksum checksum;
+    private volatile int minCapacity;
+    private byte[] buffer;
+    private int position;
+    private int limit;
+
+    private int largestFrame;
+    private int framesSinceResize;
+
+    private boolean headerDecoded;
+    private int type;
+    private int length;
+    private boolean checksummed;
+    private int trailer;
+    private int hashed;
+
+    private byte[] largeFrame;
+    private int largeFilled;
+
+    public FrameDecoder(int minCapacity) {
+        this(minCapacity, null);
+    }
+
+    public FrameDecoder(int minCapacity, Checksum checksum) {
+        if (minCapacity < HEADER_SIZE) {
+            throw new IllegalArgumentException();
+        }
+        this.checksum = checksum;
+        this.minCapacity = minCapacity;
+        this.buffer = new byte[minCapacity];
+    }
+
+    public boolean readHeader(InputStream inputStream, IntConsumer bytesRead) throws IOException {
+        if (headerDecoded) {
+            return true;
+        }
+        if (buffer.length - position < HEADER_SIZE) {
+            compact();
+        }
+        while (limit - position < HEADER_SIZE) {
+            if (fill(inputStream, bytesRead) < 0) {
+                return false;
+            }
+        }
+        type = getInt(position);
+        int raw = getInt(position + 4);
+        checksummed = raw < 0;
+        length = raw & Integer.MAX_VALUE;
+        if (checksummed && checksum != null) {
+            checksum.reset();
+            checksum.update(buffer, position, HEADER_SIZE);
+        }
+        hashed = 0;
+        position += HEADER_SIZE;
+        headerDecoded = true;
+        return true;
+    }
+
+    public byte[] readPayload(InputStream inputStream, IntConsumer bytesRead, Progress<Integer> progress) throws IOException {
+        ByteBuffer payload = readPayloadBuffer(inputStream, bytesRead, progress);
+        if (payload == null) {
+            return null;
+        }
+        if (payload.arrayOffset() == 0 && payload.array().length == length) {
+            return payload.array();
+        }
+        byte[] data = new byte[length];
+        payload.get(data);
+        return data;
+    }
+
+    public ByteBuffer readPayloadBuffer(InputStream inputStream, IntConsumer bytesRead, Progress<Integer> progress) throws IOException {
+        if (!headerDecoded) {
+            throw new IllegalStateException();
+        }
+        int needed = length + (checksummed ? TRAILER_SIZE : 0);
+        ByteBuffer data;
+        if (needed > MAX_CAPACITY) {
+            if (largeFrame == null) {
+                largeFrame = new byte[needed];
+                largeFilled = Math.min(limit - position, needed);
+                System.arraycopy(buffer, position, largeFrame, 0, largeFilled);
+                position += largeFilled;
+                hash(largeFrame, 0, largeFilled);
+            }
+            while (largeFilled < needed) {
+                int count = inputStream.read(largeFrame, largeFilled, needed - largeFilled);
+                if (count < 0) {
+                    return null;
+                }
+                hash(largeFrame, largeFilled, count);
+                largeFilled += count;
+                bytesRead.accept(count);
+                progress.changed(Math.min(largeFilled, length));
+            }
+            data = ByteBuffer.wrap(largeFrame, 0, length).slice();
+            trailer = (checksummed) ? getInt(largeFrame, length) : 0;
+            largeFrame = null;
+            largeFilled = 0;
+        } else {
+            reserve(needed);
+            hash(buffer, position + hashed, Math.min(limit - position, needed) - hashed);
+            while (limit - position < needed) {
+                if (fill(inputStream, bytesRead) < 0) {
+                    return null;
+                }
+                hash(buffer, position + hashed, Math.min(limit - position, needed) - hashed);
+                progress.changed(Math.min(limit - position, length));
+            }
+            data = ByteBuffer.wrap(buffer, position, length).slice();
+            trailer = (checksummed) ? getInt(position + length) : 0;
+            position += needed;
+        }
+        headerDecoded = false;
+        frameDecoded(HEADER_SIZE + needed);
+        return data;
+    }
+
+    public void detach() {
+        byte[] detached = new byte[buffer.length];
+        System.arraycopy(buffer, position, detached, 0, limit - position);
+        limit -= position;
+        position = 0;
+        buffer = detached;
+    }
+
+    public boolean isFrameBuffered() {
+        int available = limit - position;
+        if (headerDecoded || available < HEADER_SIZE) {
+            return false;
+        }
+        int raw = getInt(position + 4);
+        return available - HEADER_SIZE >= (raw & Integer.MAX_VALUE) + ((raw < 0) ? TRAILER_SIZE : 0);
+    }
+
+    public boolean isHeaderDecoded() {
+        return headerDecoded;
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public boolean isChecksummed() {
+        return checksummed;
+    }
+
+    public int getTrailer() {
+        return trailer;
+    }
+
+    public boolean isChecksumValid() {
+        return !checksummed || checksum == null || (int) checksum.getValue() == trailer;
+    }
+
+    public int getCapacity() {
+        return buffer.length;
+    }
+
+    public int getMinCapacity() {
+        return minCapacity;
+    }
+
+    public void setMinCapacity(int minCapacity) {
+        if (minCapacity < HEADER_SIZE) {
+            throw new IllegalArgumentException();
+        }
+        this.minCapacity = minCapacity;
+    }
+
+    private void hash(byte[] bytes, int offset, int count) {
+        int end = Math.min(hashed + count, length);
+        if (checksummed && checksum != null && end > hashed) {
+            checksum.update(bytes, offset, end - hashed);
+        }
+        hashed += count;
+    }
+
+    private int fill(InputStream inputStream, IntConsumer bytesRead) throws IOException {
+        if (limit == buffer.length) {
+            compact();
+        }
+        int count = inputStream.read(buffer, limit, buffer.length - limit);
+        if (count > 0) {
+            limit += count;
+            bytesRead.accept(count);
+        }
+        return count;
+    }
+
+    private void reserve(int needed) {
+        if (buffer.length < needed) {
+            byte[] grown = new byte[Math.min(MAX_CAPACITY, Integer.highestOneBit(needed - 1) << 1)];
+            System.arraycopy(buffer, position, grown, 0, limit - position);
+            limit -= position;
+            position = 0;
+            buffer = grown;
+        } else if (buffer.length - position < needed) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+    }
+
+    private void frameDecoded(int size) {
+        largestFrame = Math.max(largestFrame, size);
+        if (++framesSinceResize < RESIZE_INTERVAL) {
+            return;
+        }
+        int target = Math.max(minCapacity, Integer.highestOneBit(Math.min(largestFrame, MAX_CAPACITY / 4) * 4 - 1) << 1);
+        if (target != buffer.length && limit - position <= target) {
+            byte[] resized = new byte[target];
+            System.arraycopy(buffer, position, resized, 0, limit - position);
+            limit -= position;
+            position = 0;
+            buffer = resized;
+        }
+        largestFrame = 0;
+        framesSinceResize = 0;
+    }
+
+    private int getInt(int index) {
+        return getInt(buffer, index);
+    }
+
+    private static int getInt(byte[] bytes, int index) {
+        return ((bytes[index] & 0xFF) << 24) | ((bytes[index + 1] & 0xFF) << 16) | ((bytes[index + 2] & 0xFF) << 8) | (bytes[index + 3] & 0xFF);
+    }
+
+}
@@ -0,0 +1,29 @@
+package eznetworking.packet;
+
+public final class FrameType {
+
+    public static final int BYTES = 1;
+    public static final int PACKET = 2;
+
+    public static final int DATAGRAM_BIND = -1;
+    public static final int ROUTED_PACKET = -2;
+    public static final int PACKET_BATCH = -3;
+    public static final int SUBSCRIBE = -4;
+    public static final int UNSUBSCRIBE = -5;
+    public static final int PUBLISH = -6;
+    public static final int IDENTIFY = -7;
+    public static final int DELIVER = -8;
+    public static final int ACK = -9;
+    public static final int STATE = -10;
+    public static final int STATE_RESYNC = -11;
+    public static final int RELAY_AVAILABLE = -12;
+
+    public static boolean isControl(int type) {
+        return type < 0;
+    }
+
+    public static boolean isCustom(int type) {
+        return type > PACKET;
+    }
+
+}
@@ -3,15 +3,20 @@ package eznetworking.packet;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 
+import eznetworking.util.Id;
 import eznetworking.util.SHA256Hash;
 import eznetworking.util.Serializer;
 import eznetworking.util.UniqueId;
 
 public final class Packet implements Serializable, Comparable<Packet> {
 
-    private static final long serialVersionUID = 3841842235028607064L;
+    private static final long serialVersionUID = -5904214472581983137L;
 
-    private final String id;
+    public static final String REPLY_PREFIX = "REPLY::";
+
+    private final long idHigh;
+
+    private final long idLow;
 
     private final LocalDateTime creationDateTime;
 
@@ -25,8 +30,15 @@ public final class Packet implements Serializable, Comparable<Packet> {
 
     private final byte[] payloadBytes;
 
+    private transient volatile String sha256Hash;
+
+    private transient volatile Id id;
+
     private Packet(String header, String source, String destination, Class<?> payloadClass, byte[] payloadBytes) {
-        this.id = UniqueId.generate();
+        Id generated = UniqueId.next();
+        this.idHigh = generated.getHigh();
+        this.idLow = generated.getLow();
+        this.id = generated;
         this.creationDateTime = LocalDateTime.now();
         this.header = header;
         this.source = source;
@@ -36,7 +48,16 @@ public final class Packet implements Serializable, Comparable<Packet> {
     }
 
     public String getId() {
-        return id;
+        return getBinaryId().toString();
+    }
+
+    public Id getBinaryId() {
+        Id result = id;
+        if (result == null) {
+            result = new Id(idHigh, idLow);
+            id = result;
+        }
+        return result;
     }
 
     public LocalDateTime getCreationDateTime() {
@@ -67,11 +88,20 @@ public final class Packet implements Serializable, Comparable<Packet> {
     }
 
     public String getReplyHeader() {
-        return String.format("%s::%s", "REPLY", id);
+        return REPLY_PREFIX + getId();
+    }
+
+    public Id getReplyTarget() {
+        return header.startsWith(REPLY_PREFIX) ? Id.parse(header, REPLY_PREFIX.length()) : null;
     }
 
     public String getSHA256Hash() {
-        return SHA256Hash.getHash(payloadBytes);
+        String result = sha256Hash;
+        if (result == null) {
+            result = SHA256Hash.getHash(payloadBytes);
+            sha256Hash = result;
+        }
+        return result;
     }
 
     @Override
@@ -0,0 +1,45 @@
+package eznetworking.packet;
+
+public final class Topic {
+
+    public static final String SINGLE_LEVEL = "*";
+    public static final String MULTI_LEVEL = "#";
+
+    public static String[] split(String topic) {
+        return topic.split("\\.", -1);
+    }
+
+    public static boolean isValidTopic(String topic) {
+        if (topic == null || topic.isEmpty()) {
+            return false;
+        }
+        for (String level : split(topic)) {
+            if (level.isEmpty() || level.contains(SINGLE_LEVEL) || level.contains(MULTI_LEVEL)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isValidPattern(String pattern) {
+        if (pattern == null || pattern.isEmpty()) {
+            return false;
+        }
+        String[] levels = split(pattern);
+        for (int i = 0; i < levels.length; i++) {
+            String level = levels[i];
+            if (level.isEmpty()) {
+                return false;
+            }
+            if (level.equals(MULTI_LEVEL)) {
+                if (i != levels.length - 1) {
+                    return false;
+                }
+            } else if (!level.equals(SINGLE_LEVEL) && (level.contains(SINGLE_LEVEL) || level.contains(MULTI_LEVEL))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,9 @@
+package eznetworking.server;
+
+public interface RemoteRelay {
+
+    public boolean relay(String destination, byte[] data, int offset, int length);
+
+    public void relayGroup(int group, byte[] data, int offset, int length);
+
+}
@@ -1,51 +1,135 @@
 package eznetworking.server;
 
-import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
-import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
+import eznetworking.flow.InboundPublisher;
+import eznetworking.capture.TrafficRecorder;
+import eznetworking.metrics.MetricsRegistry;
+import eznetworking.metrics.ServerMetrics;
+import eznetworking.packet.EncodedFrame;
+import eznetworking.packet.FrameBuffer;
+import eznetworking.packet.FrameType;
 import eznetworking.packet.Packet;
+import eznetworking.packet.Topic;
 import eznetworking.server.connection.Connection;
 import eznetworking.server.connection.PowerLevel;
+import eznetworking.server.connection.RateLimit;
 import eznetworking.server.events.*;
+import eznetworking.server.queue.DurableQueue;
+import eznetworking.server.queue.QueueConfig;
+import eznetworking.transport.ChannelTransport;
+import eznetworking.transport.DatagramLink;
+import eznetworking.transport.InProcessAddress;
+import eznetworking.transport.InProcessListener;
+import eznetworking.transport.InProcessTransport;
+import eznetworking.transport.SharedMemoryAddress;
+import eznetworking.transport.SharedMemoryListener;
+import eznetworking.transport.SocketTransport;
+import eznetworking.transport.TlsConfig;
+import eznetworking.transport.Transport;
+import eznetworking.transport.TransportListener;
 import eznetworking.util.Progress;
 import eznetworking.util.Runner;
+import eznetworking.util.Serializer;
 import eznetworking.util.UniqueId;
 
 public class Server implements Iterable<Connection> {
 
     private final String id;
 
-    private ServerSocket server;
+    private ServerSocket[] servers;
     private int port;
+    private ServerSocketChannel serverChannel;
+    private UnixDomainSocketAddress unixAddress;
+    private TransportListener listener;
+    private InProcessAddress inProcessAddress;
+    private SharedMemoryAddress sharedMemoryAddress;
+    private boolean passByReference;
 
-    private ArrayList<ErrorOccurred> errorOccurredEvents = new ArrayList<>();
-    private ArrayList<ServerStarted> serverStartedEvents = new ArrayList<>();
-    private ArrayList<ServerStopped> serverStoppedEvents = new ArrayList<>();
-    private ArrayList<ClientConnected> clientConnectedEvents = new ArrayList<>();
-    private ArrayList<ClientDisconnected> clientDisconnectedEvents = new ArrayList<>();
-    private ArrayList<DataAvailable> dataAvailableEvents = new ArrayList<>();
-    private ArrayList<BytesReceived> bytesReceivedEvents = new ArrayList<>();
-    private ArrayList<PacketReceived> packetReceivedEvents = new ArrayList<>();
-    private ArrayList<CustomReceived> customReceivedEvents = new ArrayList<>();
-    private ArrayList<DataSendPrepared> dataSendPrepared = new ArrayList<>();
+    private CopyOnWriteArrayList<ErrorOccurred> errorOccurredEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<ServerStarted> serverStartedEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<ServerStopped> serverStoppedEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<ClientConnected> clientConnectedEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<ClientDisconnected> clientDisconnectedEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<DataAvailable> dataAvailableEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<BytesReceived> bytesReceivedEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<BytesViewReceived> bytesViewReceivedEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<PacketReceived> packetReceivedEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<PacketsReceived> packetsReceivedEvents = new CopyOnWriteArrayList<>();
 
-    private HashMap<String, Connection> clients = new HashMap<>();
+    private CopyOnWriteArrayList<InboundPublisher<Packet>> packetPublishers = new CopyOnWriteArrayList<>();
+    private ConcurrentHashMap<InboundPublisher<byte[]>, Integer> customPublishers = new ConcurrentHashMap<>();
+    private CopyOnWriteArrayList<CustomReceived> customReceivedEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<CustomViewReceived> customViewReceivedEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<DataSendPrepared> dataSendPrepared = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<GroupChanged> groupChangedEvents = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<ClientThrottled> clientThrottledEvents = new CopyOnWriteArrayList<>();
 
-    private Thread listenThread;
-    private boolean isListening;
+    private ConcurrentHashMap<String, Connection> clients = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<String, Integer> groupAliases = new ConcurrentHashMap<>();
+    private TopicIndex<Connection> topics = new TopicIndex<>();
+    private ConcurrentHashMap<String, DurableQueue> durableQueues = new ConcurrentHashMap<>();
+    private volatile QueueConfig queueConfig;
+    private volatile TrafficRecorder trafficRecorder;
+    private volatile boolean relayEnabled;
+    private RemoteRelay remoteRelay;
+
+    private volatile RateLimit rateLimit = RateLimit.UNLIMITED;
+    private ConcurrentHashMap<Integer, RateLimit> groupRateLimits = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<PowerLevel, RateLimit> powerLevelRateLimits = new ConcurrentHashMap<>();
+
+    private TlsConfig tlsConfig;
+
+    private boolean datagramsEnabled;
+    private int datagramMtu = DatagramLink.DEFAULT_MTU;
+    private DatagramChannel datagramChannel;
+    private Thread datagramThread;
+    private ConcurrentHashMap<Long, Connection> datagramClients = new ConcurrentHashMap<>();
+    private final SecureRandom tokenRandom = new SecureRandom();
+
+    private Thread[] listenThreads;
+    private ExecutorService[] workerGroups;
+    private int acceptorCount = 1;
+    private volatile boolean isListening;
 
     private ArrayList<String> blacklistedIPAddresses = new ArrayList<>();
     private Function<Connection, Boolean> clientCondition = (c) -> true;
+    private BiFunction<Connection, String, Boolean> identityCondition = (c, i) -> false;
+
+    private final ServerMetrics metrics;
+    private boolean connectionMBeansEnabled;
+    private boolean connectionLatenciesEnabled;
+    private boolean checksumEnabled;
 
     private Server() {
         this.id = UniqueId.generate();
+        this.metrics = new ServerMetrics(() -> clients.size());
     }
 
     public Server(int port) {
@@ -56,38 +140,60 @@ public class Server implements Iterable<Connection> {
         this.port = port;
     }
 
+    public Server(UnixDomainSocketAddress address) {
+        this();
+        if (address == null) {
+            throw new IllegalArgumentException();
+        }
+        this.unixAddress = address;
+    }
+
+    public Server(InProcessAddress address) {
+        this();
+        if (address == null) {
+            throw new IllegalArgumentException();
+        }
+        this.inProcessAddress = address;
+    }
+
+    public Server(SharedMemoryAddress address) {
+        this();
+        if (address == null) {
+            throw new IllegalArgumentException();
+        }
+        this.sharedMemoryAddress = address;
+    }
+
     public synchronized boolean start() {
         try {
-            if (server == null && listenThread == null) {
+            if (!isBound() && listenThreads == null) {
                 isListening = true;
-                server = new ServerSocket(port);
-                listenThread = new Thread(() -> {
-                    while (!listenThread.isInterrupted() && isListening) {
-                        try {
-                            Socket acceptedSocket = server.accept();
-                            Thread t = new Thread(() -> {
-                                try {
-                                    final Socket socket = acceptedSocket;
-                                    InetAddress address = socket.getInetAddress();
-                                    if (!blacklistedIPAddresses.contains(address.getHostAddress())) {
-                                        Connection client = new Connection(socket, this);
-                                        if (client.startReceiving() && clientCondition.apply(client) && initClient(client)) {
-                                            triggerClientConnected(client);
-                                        } else {
-                                            client.disconnect();
-                                        }
-                                    } else {
-                                        socket.close();
-                                    }
-                                } catch (Exception ex) {
-                                }
-                            });
-                            t.start();
-                        } catch (Exception ex) {
-                        }
-                    }
-                });
-                listenThread.start();
+                int acceptors = 1;
+                if (inProcessAddress != null) {
+                    listener = InProcessListener.bind(inProcessAddress, passByReference);
+                } else if (sharedMemoryAddress != null) {
+                    listener = SharedMemoryListener.bind(sharedMemoryAddress);
+                } else if (unixAddress != null) {
+                    serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+                    serverChannel.bind(unixAddress);
+                } else {
+                    servers = openServerSockets();
+                    acceptors = acceptorCount;
+                }
+                listenThreads = new Thread[acceptors];
+                workerGroups = new ExecutorService[acceptors];
+                for (int i = 0; i < acceptors; i++) {
+                    final int acceptor = i;
+                    workerGroups[i] = Executors.newCachedThreadPool((r) -> new Thread(r, "Server-" + id + "-worker-" + acceptor));
+                    listenThreads[i] = new Thread(() -> listen(acceptor), "Server-" + id + "-acceptor-" + acceptor);
+                }
+                for (Thread listenThread : listenThreads) {
+                    listenThread.start();
+                }
+                if (datagramsEnabled && servers != null) {
+                    startDatagrams();
+                }
+                MetricsRegistry.register(metrics, "Server", id);
                 triggerServerStarted();
                 return true;
             }
@@ -100,13 +206,22 @@ public class Server implements Iterable<Connection> {
 
     public synchronized boolean stop() {
         try {
-            if (server != null && listenThread != null) {
+            if (isBound() && listenThreads != null) {
                 isListening = false;
-                server.close();
-                listenThread.interrupt();
-                listenThread.join();
-                server = null;
-                listenThread = null;
+                closeListeners();
+                for (Thread listenThread : listenThreads) {
+                    listenThread.interrupt();
+                    listenThread.join();
+                }
+                for (ExecutorService workerGroup : workerGroups) {
+                    workerGroup.shutdown();
+                }
+                stopDatagrams();
+                closePublishers();
+                closeDurableQueues();
+                listenThreads = null;
+                workerGroups = null;
+                MetricsRegistry.unregister("Server", id);
                 triggerServerStopped();
                 return true;
             }
@@ -117,11 +232,145 @@ public class Server implements Iterable<Connection> {
         }
     }
 
+    private ServerSocket[] openServerSockets() throws Exception {
+        if (acceptorCount == 1 || !isReusePortSupported()) {
+            return new ServerSocket[] { new ServerSocket(port) };
+        }
+        ServerSocket[] result = new ServerSocket[acceptorCount];
+        try {
+            for (int i = 0; i < acceptorCount; i++) {
+                result[i] = new ServerSocket();
+                result[i].setOption(StandardSocketOptions.SO_REUSEPORT, true);
+                result[i].bind(new InetSocketAddress(port));
+            }
+            return result;
+        } catch (Exception ex) {
+            for (ServerSocket serverSocket : result) {
+                if (serverSocket != null) {
+                    serverSocket.close();
+                }
+            }
+            throw ex;
+        }
+    }
+
+    private void closeListeners() throws Exception {
+        try {
+            if (servers != null) {
+                for (ServerSocket serverSocket : servers) {
+                    serverSocket.close();
+                }
+            } else if (listener != null) {
+                listener.close();
+            } else if (serverChannel != null) {
+                serverChannel.close();
+                Files.deleteIfExists(unixAddress.getPath());
+            }
+        } finally {
+            servers = null;
+            serverChannel = null;
+            listener = null;
+        }
+    }
+
+    private void listen(int acceptor) {
+        ServerSocket serverSocket = (servers != null) ? servers[acceptor % servers.length] : null;
+        ExecutorService workerGroup = workerGroups[acceptor];
+        while (!Thread.currentThread().isInterrupted() && isListening) {
+            try {
+                Transport transport = (serverSocket != null) ? new SocketTransport(serverSocket.accept()) : accept();
+                workerGroup.execute(() -> setup(transport));
+            } catch (Exception ex) {
+            }
+        }
+    }
+
+    private void setup(Transport transport) {
+        try {
+            String address = transport.getRemoteAddress();
+            if (address == null || !blacklistedIPAddresses.contains(address)) {
+                Connection client = new Connection(secure(transport), this);
+                if (clientCondition.apply(client) && initClient(client) && client.startReceiving()) {
+                    triggerClientConnected(client);
+                } else {
+                    metrics.handshakeRejected();
+                    client.disconnect();
+                }
+            } else {
+                metrics.handshakeRejected();
+                transport.close();
+            }
+        } catch (Exception ex) {
+            metrics.handshakeRejected();
+        }
+    }
+
+    private void startDatagrams() throws Exception {
+        datagramChannel = DatagramLink.open();
+        datagramChannel.bind(new InetSocketAddress(port));
+        final DatagramChannel channel = datagramChannel;
+        datagramThread = new Thread(() -> {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(datagramMtu);
+            while (channel.isOpen()) {
+                try {
+                    buffer.clear();
+                    SocketAddress sender = channel.receive(buffer);
+                    buffer.flip();
+                    Connection client = datagramClients.get(DatagramLink.readToken(buffer));
+                    if (client != null) {
+                        client.datagramReceived(buffer, sender);
+                    }
+                } catch (Exception ex) {
+                }
+            }
+        });
+        datagramThread.start();
+    }
+
+    private void stopDatagrams() throws Exception {
+        if (datagramChannel != null) {
+            datagramChannel.close();
+            datagramThread.join();
+            datagramChannel = null;
+            datagramThread = null;
+        }
+    }
+
+    private void bindDatagrams(Connection client) {
+        long token;
+        do {
+            token = tokenRandom.nextLong();
+        } while (token == 0 || datagramClients.putIfAbsent(token, client) != null);
+        final long bound = token;
+        client.addClientDisconnectedListener((s) -> datagramClients.remove(bound, client));
+        client.bindDatagrams(datagramChannel, bound, port, datagramMtu);
+    }
+
+    private boolean isBound() {
+        return servers != null || serverChannel != null || listener != null;
+    }
+
+    private Transport accept() throws Exception {
+        return (listener != null) ? listener.accept() : new ChannelTransport(serverChannel.accept());
+    }
+
+    public static boolean isReusePortSupported() {
+        try (ServerSocket probe = new ServerSocket()) {
+            return probe.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
+    private Transport secure(Transport transport) throws Exception {
+        return (tlsConfig != null && !(transport instanceof InProcessTransport)) ? tlsConfig.wrapServer(transport) : transport;
+    }
+
     public boolean blacklistClient(Connection client, boolean disconnect) {
         if (client == null) {
             throw new IllegalArgumentException();
         }
-        String ip = client.getSocket().getInetAddress().getHostAddress();
+        String ip = client.getTransport().getRemoteAddress();
         return disconnect ? blacklistedIPAddresses.add(ip) && client.disconnect() : blacklistedIPAddresses.add(ip);
     }
 
@@ -136,6 +385,202 @@ public class Server implements Iterable<Connection> {
         return result;
     }
 
+    public boolean relay(Connection sender, String destination, byte[] data, int offset, int length) {
+        if (!relayEnabled) {
+            return false;
+        }
+        Connection target = clients.get(destination);
+        if (target != null) {
+            target.forwardPacket(data, offset, length);
+            metrics.packetRelayed();
+            return true;
+        }
+        Integer group = groupAliases.get(destination);
+        if (group != null) {
+            for (Connection c : clients.values()) {
+                if (c.getGroup() == group && c != sender) {
+                    c.forwardPacket(data, offset, length);
+                    metrics.packetRelayed();
+                }
+            }
+            if (remoteRelay != null) {
+                remoteRelay.relayGroup(group, data, offset, length);
+            }
+            return true;
+        }
+        return remoteRelay != null && remoteRelay.relay(destination, data, offset, length);
+    }
+
+    public boolean subscribe(Connection client, String pattern) {
+        if (client == null || !Topic.isValidPattern(pattern)) {
+            throw new IllegalArgumentException();
+        }
+        return topics.subscribe(client, pattern);
+    }
+
+    public boolean unsubscribe(Connection client, String pattern) {
+        if (client == null || pattern == null) {
+            throw new IllegalArgumentException();
+        }
+        return topics.unsubscribe(client, pattern);
+    }
+
+    public Set<String> getSubscriptions(Connection client) {
+        if (client == null) {
+            throw new IllegalArgumentException();
+        }
+        return topics.getPatterns(client);
+    }
+
+    public int getSubscriptionCount() {
+        return topics.size();
+    }
+
+    public int publish(String topic, Packet packet) {
+        if (!Topic.isValidTopic(topic) || packet == null) {
+            throw new IllegalArgumentException();
+        }
+        byte[] data = Serializer.serialize(packet);
+        return (data != null) ? publish(null, topic, data, 0, data.length) : 0;
+    }
+
+    public int publish(Connection sender, String topic, byte[] data, int offset, int length) {
+        if (!Topic.isValidTopic(topic) || data == null || offset < 0 || length < 1 || offset + length > data.length) {
+            throw new IllegalArgumentException();
+        }
+        Set<Connection> targets = topics.match(topic);
+        if (targets.isEmpty()) {
+            return 0;
+        }
+        EncodedFrame frame = new EncodedFrame(FrameType.PACKET, Arrays.copyOfRange(data, offset, offset + length));
+        int delivered = 0;
+        for (Connection c : targets) {
+            if (c != sender && c.forwardFrame(frame)) {
+                metrics.packetRelayed();
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+
+    public DurableQueue getDurableQueue(String identity) {
+        if (identity == null || identity.isEmpty()) {
+            throw new IllegalArgumentException();
+        }
+        QueueConfig config = queueConfig;
+        if (config == null) {
+            return null;
+        }
+        return durableQueues.computeIfAbsent(identity, (k) -> {
+            try {
+                return new DurableQueue(k, config);
+            } catch (IOException ex) {
+                triggerErrorOccurred(ex);
+                return null;
+            }
+        });
+    }
+
+    public boolean sendDurable(String identity, Packet packet) {
+        if (identity == null || identity.isEmpty() || packet == null) {
+            throw new IllegalArgumentException();
+        }
+        DurableQueue queue = getDurableQueue(identity);
+        return queue != null && queue.offer(packet);
+    }
+
+    public boolean identify(Connection client, String identity, long epoch, long sequence) {
+        if (client == null || identity == null || identity.isEmpty()) {
+            throw new IllegalArgumentException();
+        }
+        if (!Boolean.TRUE.equals(identityCondition.apply(client, identity))) {
+            return false;
+        }
+        detachDurableQueue(client);
+        client.setIdentity(identity);
+        DurableQueue queue = getDurableQueue(identity);
+        if (queue != null) {
+            queue.attach(client, epoch, sequence);
+        }
+        return true;
+    }
+
+    public void acknowledge(Connection client, long epoch, long sequence) {
+        String identity = client.getIdentity();
+        DurableQueue queue = (identity != null) ? durableQueues.get(identity) : null;
+        if (queue != null) {
+            queue.acknowledge(epoch, sequence);
+        }
+    }
+
+    private void detachDurableQueue(Connection client) {
+        String identity = client.getIdentity();
+        DurableQueue queue = (identity != null) ? durableQueues.get(identity) : null;
+        if (queue != null) {
+            queue.detach(client);
+        }
+    }
+
+    private void closeDurableQueues() {
+        for (DurableQueue queue : durableQueues.values()) {
+            queue.close();
+        }
+        durableQueues.clear();
+    }
+
+    public boolean relay(Connection sender, Packet packet) {
+        String destination = packet.getDestination();
+        if (!relayEnabled || destination == null || destination.isEmpty()) {
+            return false;
+        }
+        Connection target = clients.get(destination);
+        if (target != null) {
+            target.sendPacket(packet);
+            metrics.packetRelayed();
+            return true;
+        }
+        Integer group = groupAliases.get(destination);
+        if (group != null) {
+            for (Connection c : clients.values()) {
+                if (c.getGroup() == group && c != sender) {
+                    c.sendPacket(packet);
+                    metrics.packetRelayed();
+                }
+            }
+            if (remoteRelay != null) {
+                byte[] data = Serializer.serialize(packet);
+                remoteRelay.relayGroup(group, data, 0, data.length);
+            }
+            return true;
+        }
+        if (remoteRelay != null) {
+            byte[] data = Serializer.serialize(packet);
+            return remoteRelay.relay(destination, data, 0, data.length);
+        }
+        return false;
+    }
+
+    public void addGroupAlias(String alias, int group) {
+        if (alias == null || alias.trim().isEmpty()) {
+            throw new IllegalArgumentException();
+        }
+        groupAliases.put(alias, group);
+    }
+
+    public boolean removeGroupAlias(String alias) {
+        if (alias == null) {
+            throw new IllegalArgumentException();
+        }
+        return groupAliases.remove(alias) != null;
+    }
+
+    public Integer getGroupAlias(String alias) {
+        if (alias == null) {
+            throw new IllegalArgumentException();
+        }
+        return groupAliases.get(alias);
+    }
+
     @Override
     public Iterator<Connection> iterator() {
         return Arrays.asList(getClients()).iterator();
@@ -143,23 +588,114 @@ public class Server implements Iterable<Connection> {
 
     private boolean initClient(Connection client) {
         try {
-            client.getSocket().setKeepAlive(true);
-            client.getSocket().setSoTimeout(500);
+            if (client.getSocket() != null) {
+                client.getSocket().setKeepAlive(true);
+            }
+            client.getTransport().setReadTimeout(500);
+            client.setChecksumEnabled(checksumEnabled);
+            client.setTrafficRecorder(trafficRecorder);
             client.addClientDisconnectedListener((s) -> triggerClientDisconnected(client));
+            client.addClientDisconnectedListener((s) -> topics.unsubscribeAll(client));
+            client.addClientDisconnectedListener((s) -> detachDurableQueue(client));
+            client.getMetrics().setLatenciesEnabled(connectionLatenciesEnabled);
+            if (connectionMBeansEnabled) {
+                MetricsRegistry.register(client.getMetrics(), "Connection", client.getId());
+                client.addClientDisconnectedListener((s) -> MetricsRegistry.unregister("Connection", client.getId()));
+            }
             client.addDataAvailableListener((s, t, l, p) -> triggerDataAvailable(client, t, l, p));
-            client.addBytesReceivedListener((s, d) -> triggerBytesReceived(client, d));
+            client.addBytesViewReceivedListener((s, b) -> triggerBytesReceived(client, b));
             client.addPacketReceivedListener((s, p) -> triggerPacketReceived(client, p));
-            client.addCustomReceivedListener((s, t, d) -> triggerCustomReceived(client, t, d));
+            client.addPacketsReceivedListener((s, p) -> triggerPacketsReceived(client, p));
+            client.addCustomViewReceivedListener((s, t, b) -> triggerCustomReceived(client, t, b));
             client.addDataSendPreparedListener((s, t, l, p) -> triggerDataSendPrepared(client, t, l, p));
+            if (relayEnabled) {
+                client.announceRelay(true);
+            }
+            if (datagramChannel != null) {
+                bindDatagrams(client);
+            }
             return true;
         } catch (Exception ex) {
             return false;
         }
     }
 
+    // --- Flow ---
+
+    public InboundPublisher<Packet> createPacketPublisher() {
+        return createPacketPublisher((p) -> true);
+    }
+
+    public InboundPublisher<Packet> createPacketPublisher(String header) {
+        if (header == null || header.trim().isEmpty()) {
+            throw new IllegalArgumentException();
+        }
+        return createPacketPublisher((p) -> p.getHeader().contentEquals(header) || header.contentEquals("*"));
+    }
+
+    public InboundPublisher<Packet> createPacketPublisher(Predicate<Packet> filter) {
+        InboundPublisher<Packet> publisher = new InboundPublisher<>(filter);
+        packetPublishers.add(publisher);
+        return publisher;
+    }
+
+    public InboundPublisher<byte[]> createCustomPublisher(int type) {
+        if (type < 3) {
+            throw new IllegalArgumentException();
+        }
+        InboundPublisher<byte[]> publisher = new InboundPublisher<>((d) -> true);
+        customPublishers.put(publisher, type);
+        return publisher;
+    }
+
+    public boolean removePublisher(Flow.Publisher<?> publisher) {
+        if (publisher == null) {
+            throw new IllegalArgumentException();
+        }
+        boolean removed = packetPublishers.remove(publisher) | customPublishers.remove(publisher) != null;
+        if (removed) {
+            ((InboundPublisher<?>) publisher).close();
+        }
+        return removed;
+    }
+
+    private void publishPacket(Packet packet) {
+        try {
+            for (InboundPublisher<Packet> publisher : packetPublishers) {
+                publisher.publish(packet);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publishCustom(int type, byte[] data) {
+        try {
+            for (Map.Entry<InboundPublisher<byte[]>, Integer> entry : customPublishers.entrySet()) {
+                if (entry.getValue() == type) {
+                    entry.getKey().publish(data);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void closePublishers() {
+        for (InboundPublisher<Packet> publisher : packetPublishers) {
+            publisher.close();
+        }
+        for (InboundPublisher<byte[]> publisher : customPublishers.keySet()) {
+            publisher.close();
+        }
+        packetPublishers.clear();
+        customPublishers.clear();
+    }
+
     // --- Events ---
 
     private void triggerErrorOccurred(Exception error) {
+        metrics.getTotals().errorOccurred();
         Runner.run(() -> {
             for (ErrorOccurred eo : errorOccurredEvents) {
                 eo.occurred(this, error);
@@ -227,6 +763,7 @@ public class Server implements Iterable<Connection> {
 
     private void triggerClientConnected(Connection client) {
         if (clients.put(client.getId(), client) == null) {
+            metrics.clientConnected();
             Runner.run(() -> {
                 for (ClientConnected cc : clientConnectedEvents) {
                     cc.connected(this, client);
@@ -251,6 +788,7 @@ public class Server implements Iterable<Connection> {
 
     private void triggerClientDisconnected(Connection client) {
         if (clients.remove(client.getId(), client)) {
+            metrics.clientDisconnected();
             Runner.run(() -> {
                 for (ClientDisconnected cd : clientDisconnectedEvents) {
                     cd.disconnected(this, client);
@@ -295,6 +833,17 @@ public class Server implements Iterable<Connection> {
         return dataAvailableEvents.remove(listener);
     }
 
+    private void triggerBytesReceived(Connection client, FrameBuffer buffer) {
+        if (!bytesReceivedEvents.isEmpty()) {
+            triggerBytesReceived(client, buffer.toArray());
+        }
+        Runner.run(() -> {
+            for (BytesViewReceived bvr : bytesViewReceivedEvents) {
+                bvr.received(this, client, buffer);
+            }
+        });
+    }
+
     private void triggerBytesReceived(Connection client, byte[] data) {
         Runner.run(() -> {
             for (BytesReceived br : bytesReceivedEvents) {
@@ -317,12 +866,29 @@ public class Server implements Iterable<Connection> {
         return bytesReceivedEvents.remove(listener);
     }
 
+    public void addBytesViewReceivedListener(BytesViewReceived listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        bytesViewReceivedEvents.add(listener);
+    }
+
+    public boolean removeBytesViewReceivedListener(BytesViewReceived listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        return bytesViewReceivedEvents.remove(listener);
+    }
+
     private void triggerPacketReceived(Connection client, Packet packet) {
         Runner.run(() -> {
             for (PacketReceived pr : packetReceivedEvents) {
                 pr.received(this, client, packet);
             }
         });
+        if (packet != null && !packetPublishers.isEmpty()) {
+            publishPacket(packet);
+        }
     }
 
     public void addPacketReceivedListener(PacketReceived listener) {
@@ -365,12 +931,107 @@ public class Server implements Iterable<Connection> {
         return packetReceivedEvents.remove(listener);
     }
 
+    public void clientThrottled(Connection client, long waitNanos) {
+        if (client == null || waitNanos < 0) {
+            throw new IllegalArgumentException();
+        }
+        Runner.run(() -> {
+            for (ClientThrottled ct : clientThrottledEvents) {
+                ct.throttled(this, client, waitNanos);
+            }
+        });
+    }
+
+    public void addClientThrottledListener(ClientThrottled listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        clientThrottledEvents.add(listener);
+    }
+
+    public boolean removeClientThrottledListener(ClientThrottled listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        return clientThrottledEvents.remove(listener);
+    }
+
+    public void groupChanged(Connection client, int oldGroup) {
+        if (client == null) {
+            throw new IllegalArgumentException();
+        }
+        if (clients.get(client.getId()) == client && client.getGroup() != oldGroup) {
+            triggerGroupChanged(client, oldGroup, client.getGroup());
+        }
+    }
+
+    private void triggerGroupChanged(Connection client, int oldGroup, int newGroup) {
+        Runner.run(() -> {
+            for (GroupChanged gc : groupChangedEvents) {
+                gc.changed(this, client, oldGroup, newGroup);
+            }
+        });
+    }
+
+    public void addGroupChangedListener(GroupChanged listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        groupChangedEvents.add(listener);
+    }
+
+    public boolean removeGroupChangedListener(GroupChanged listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        return groupChangedEvents.remove(listener);
+    }
+
+    private void triggerPacketsReceived(Connection client, List<Packet> packets) {
+        if (packetsReceivedEvents.isEmpty()) {
+            return;
+        }
+        Runner.run(() -> {
+            for (PacketsReceived pr : packetsReceivedEvents) {
+                pr.received(this, client, packets);
+            }
+        });
+    }
+
+    public void addPacketsReceivedListener(PacketsReceived listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        packetsReceivedEvents.add(listener);
+    }
+
+    public boolean removePacketsReceivedListener(PacketsReceived listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        return packetsReceivedEvents.remove(listener);
+    }
+
+    private void triggerCustomReceived(Connection client, int type, FrameBuffer buffer) {
+        if (!customReceivedEvents.isEmpty() || !customPublishers.isEmpty()) {
+            triggerCustomReceived(client, type, buffer.toArray());
+        }
+        Runner.run(() -> {
+            for (CustomViewReceived cvr : customViewReceivedEvents) {
+                cvr.received(this, client, type, buffer);
+            }
+        });
+    }
+
     private void triggerCustomReceived(Connection client, int type, byte[] data) {
         Runner.run(() -> {
             for (CustomReceived cr : customReceivedEvents) {
                 cr.received(this, client, type, data);
             }
         });
+        if (!customPublishers.isEmpty()) {
+            publishCustom(type, data);
+        }
     }
 
     public void addCustomReceivedListener(CustomReceived listener) {
@@ -400,6 +1061,33 @@ public class Server implements Iterable<Connection> {
         return customReceivedEvents.remove(listener);
     }
 
+    public void addCustomViewReceivedListener(CustomViewReceived listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        customViewReceivedEvents.add(listener);
+    }
+
+    public CustomViewReceived addCustomViewReceivedListener(int type, CustomViewReceived listener) {
+        if (type < 0 || type == 1 || type == 2 || listener == null) {
+            throw new IllegalArgumentException();
+        }
+        CustomViewReceived result = (s, c, t, b) -> {
+            if (t == type || type == 0) {
+                listener.received(s, c, t, b);
+            }
+        };
+        addCustomViewReceivedListener(result);
+        return result;
+    }
+
+    public boolean removeCustomViewReceivedListener(CustomViewReceived listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        return customViewReceivedEvents.remove(listener);
+    }
+
     private void triggerDataSendPrepared(Connection client, int type, int length, Progress<Integer> progress) {
         Runner.run(() -> {
             for (DataSendPrepared dsp : dataSendPrepared) {
@@ -429,7 +1117,202 @@ public class Server implements Iterable<Connection> {
     }
 
     public ServerSocket getServerSocket() {
-        return server;
+        ServerSocket[] current = servers;
+        return (current != null) ? current[0] : null;
+    }
+
+    public ServerSocket[] getServerSockets() {
+        ServerSocket[] current = servers;
+        return (current != null) ? current.clone() : new ServerSocket[0];
+    }
+
+    public int getAcceptorCount() {
+        return acceptorCount;
+    }
+
+    public void setAcceptorCount(int acceptorCount) {
+        if (acceptorCount < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.acceptorCount = acceptorCount;
+    }
+
+    public ServerSocketChannel getServerChannel() {
+        return serverChannel;
+    }
+
+    public UnixDomainSocketAddress getUnixAddress() {
+        return unixAddress;
+    }
+
+    public InProcessAddress getInProcessAddress() {
+        return inProcessAddress;
+    }
+
+    public SharedMemoryAddress getSharedMemoryAddress() {
+        return sharedMemoryAddress;
+    }
+
+    public boolean isPassByReference() {
+        return passByReference;
+    }
+
+    public void setPassByReference(boolean passByReference) {
+        this.passByReference = passByReference;
+    }
+
+    public TlsConfig getTlsConfig() {
+        return tlsConfig;
+    }
+
+    public void setTlsConfig(TlsConfig tlsConfig) {
+        this.tlsConfig = tlsConfig;
+    }
+
+    public boolean isDatagramsEnabled() {
+        return datagramsEnabled;
+    }
+
+    public void setDatagramsEnabled(boolean datagramsEnabled) {
+        this.datagramsEnabled = datagramsEnabled;
+    }
+
+    public int getDatagramMtu() {
+        return datagramMtu;
+    }
+
+    public void setDatagramMtu(int datagramMtu) {
+        if (datagramMtu < 576 || datagramMtu > 65535) {
+            throw new IllegalArgumentException();
+        }
+        this.datagramMtu = datagramMtu;
+    }
+
+    public DatagramChannel getDatagramChannel() {
+        return datagramChannel;
+    }
+
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    public RateLimit getEffectiveRateLimit(Connection client) {
+        if (client == null) {
+            throw new IllegalArgumentException();
+        }
+        RateLimit result = client.getRateLimit();
+        if (result == null) {
+            result = groupRateLimits.get(client.getGroup());
+        }
+        if (result == null && client.getPowerLevel() != null) {
+            result = powerLevelRateLimits.get(client.getPowerLevel());
+        }
+        return (result != null) ? result : rateLimit;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(RateLimit rateLimit) {
+        if (rateLimit == null) {
+            throw new IllegalArgumentException();
+        }
+        this.rateLimit = rateLimit;
+    }
+
+    public RateLimit getRateLimit(int group) {
+        return groupRateLimits.get(group);
+    }
+
+    public void setRateLimit(int group, RateLimit rateLimit) {
+        if (rateLimit != null) {
+            groupRateLimits.put(group, rateLimit);
+        } else {
+            groupRateLimits.remove(group);
+        }
+    }
+
+    public RateLimit getRateLimit(PowerLevel powerLevel) {
+        if (powerLevel == null) {
+            throw new IllegalArgumentException();
+        }
+        return powerLevelRateLimits.get(powerLevel);
+    }
+
+    public void setRateLimit(PowerLevel powerLevel, RateLimit rateLimit) {
+        if (powerLevel == null) {
+            throw new IllegalArgumentException();
+        }
+        if (rateLimit != null) {
+            powerLevelRateLimits.put(powerLevel, rateLimit);
+        } else {
+            powerLevelRateLimits.remove(powerLevel);
+        }
+    }
+
+    public TrafficRecorder getTrafficRecorder() {
+        return trafficRecorder;
+    }
+
+    public void setTrafficRecorder(TrafficRecorder trafficRecorder) {
+        this.trafficRecorder = trafficRecorder;
+        for (Connection c : clients.values()) {
+            c.setTrafficRecorder(trafficRecorder);
+        }
+    }
+
+    public QueueConfig getQueueConfig() {
+        return queueConfig;
+    }
+
+    public void setQueueConfig(QueueConfig queueConfig) {
+        this.queueConfig = queueConfig;
+    }
+
+    public boolean isRelayEnabled() {
+        return relayEnabled;
+    }
+
+    public void setRelayEnabled(boolean relayEnabled) {
+        if (this.relayEnabled != relayEnabled) {
+            this.relayEnabled = relayEnabled;
+            for (Connection c : clients.values()) {
+                c.announceRelay(relayEnabled);
+            }
+        }
+    }
+
+    public RemoteRelay getRemoteRelay() {
+        return remoteRelay;
+    }
+
+    public void setRemoteRelay(RemoteRelay remoteRelay) {
+        this.remoteRelay = remoteRelay;
+    }
+
+    public boolean isChecksumEnabled() {
+        return checksumEnabled;
+    }
+
+    public void setChecksumEnabled(boolean checksumEnabled) {
+        this.checksumEnabled = checksumEnabled;
+    }
+
+    public boolean isConnectionMBeansEnabled() {
+        return connectionMBeansEnabled;
+    }
+
+    public void setConnectionMBeansEnabled(boolean connectionMBeansEnabled) {
+        this.connectionMBeansEnabled = connectionMBeansEnabled;
+    }
+
+    public boolean isConnectionLatenciesEnabled() {
+        return connectionLatenciesEnabled;
+    }
+
+    public void setConnectionLatenciesEnabled(boolean connectionLatenciesEnabled) {
+        this.connectionLatenciesEnabled = connectionLatenciesEnabled;
     }
 
     public Connection getClient(String id) {
@@ -484,7 +1367,18 @@ public class Server implements Iterable<Connection> {
         }
     }
 
+    public BiFunction<Connection, String, Boolean> getIdentityCondition() {
+        return identityCondition;
+    }
+
+    public void setIdentityCondition(BiFunction<Connection, String, Boolean> condition) {
+        if (condition != null) {
+            identityCondition = condition;
+        }
+    }
+
     public boolean isListening() {
-        return (listenThread != null && listenThread.isAlive() && isListening);
+        Thread[] current = listenThreads;
+        return (current != null && current[0].isAlive() && isListening);
     }
 }
\ No newline at end of file
@@ -0,0 +1,220 @@
+package eznetworking.server;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import eznetworking.packet.Topic;
+
+public final class TopicIndex<S> {
+
+    private final Node<S> root = new Node<>(null, null);
+    private final Map<S, Set<String>> patterns = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int size;
+
+    public boolean subscribe(S subscriber, String pattern) {
+        if (subscriber == null || !Topic.isValidPattern(pattern)) {
+            throw new IllegalArgumentException();
+        }
+        lock.writeLock().lock();
+        try {
+            Set<String> owned = patterns.computeIfAbsent(subscriber, (k) -> new HashSet<>());
+            if (!owned.add(pattern)) {
+                return false;
+            }
+            Node<S> node = root;
+            for (String level : Topic.split(pattern)) {
+                node = node.child(level);
+            }
+            if (node.subscribers == null) {
+                node.subscribers = new HashSet<>();
+            }
+            node.subscribers.add(subscriber);
+            size++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean unsubscribe(S subscriber, String pattern) {
+        if (subscriber == null || pattern == null) {
+            throw new IllegalArgumentException();
+        }
+        lock.writeLock().lock();
+        try {
+            Set<String> owned = patterns.get(subscriber);
+            if (owned == null || !owned.remove(pattern)) {
+                return false;
+            }
+            if (owned.isEmpty()) {
+                patterns.remove(subscriber);
+            }
+            remove(subscriber, pattern);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int unsubscribeAll(S subscriber) {
+        if (subscriber == null) {
+            throw new IllegalArgumentException();
+        }
+        lock.writeLock().lock();
+        try {
+            Set<String> owned = patterns.remove(subscriber);
+            if (owned == null) {
+                return 0;
+            }
+            for (String pattern : owned) {
+                remove(subscriber, pattern);
+            }
+            return owned.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Set<S> match(String topic) {
+        if (!Topic.isValidTopic(topic)) {
+            throw new IllegalArgumentException();
+        }
+        String[] levels = Topic.split(topic);
+        Set<S> result = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            collect(root, levels, 0, result);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public Set<String> getPatterns(S subscriber) {
+        lock.readLock().lock();
+        try {
+            Set<String> owned = patterns.get(subscriber);
+            return (owned != null) ? Collections.unmodifiableSet(new HashSet<>(owned)) : Collections.emptySet();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collect(Node<S> node, String[] levels, int index, Set<S> result) {
+        if (node.multiLevel != null && node.multiLevel.subscribers != null) {
+            result.addAll(node.multiLevel.subscribers);
+        }
+        if (index == levels.length) {
+            if (node.subscribers != null) {
+                result.addAll(node.subscribers);
+            }
+            return;
+        }
+        if (node.children != null) {
+            Node<S> child = node.children.get(levels[index]);
+            if (child != null) {
+                collect(child, levels, index + 1, result);
+            }
+        }
+        if (node.singleLevel != null) {
+            collect(node.singleLevel, levels, index + 1, result);
+        }
+    }
+
+    private void remove(S subscriber, String pattern) {
+        Node<S> node = root;
+        for (String level : Topic.split(pattern)) {
+            node = node.find(level);
+            if (node == null) {
+                return;
+            }
+        }
+        if (node.subscribers != null && node.subscribers.remove(subscriber)) {
+            size--;
+            if (node.subscribers.isEmpty()) {
+                node.subscribers = null;
+            }
+        }
+        while (node.parent != null && node.isEmpty()) {
+            node.parent.detach(node);
+            node = node.parent;
+        }
+    }
+
+    private static final class Node<S> {
+
+        private final Node<S> parent;
+        private final String level;
+        private Map<String, Node<S>> children;
+        private Node<S> singleLevel;
+        private Node<S> multiLevel;
+        private Set<S> subscribers;
+
+        private Node(Node<S> parent, String level) {
+            this.parent = parent;
+            this.level = level;
+        }
+
+        private Node<S> find(String level) {
+            if (level.equals(Topic.SINGLE_LEVEL)) {
+                return singleLevel;
+            }
+            if (level.equals(Topic.MULTI_LEVEL)) {
+                return multiLevel;
+            }
+            return (children != null) ? children.get(level) : null;
+        }
+
+        private Node<S> child(String level) {
+            Node<S> node = find(level);
+            if (node != null) {
+                return node;
+            }
+            node = new Node<>(this, level);
+            if (level.equals(Topic.SINGLE_LEVEL)) {
+                singleLevel = node;
+            } else if (level.equals(Topic.MULTI_LEVEL)) {
+                multiLevel = node;
+            } else {
+                if (children == null) {
+                    children = new HashMap<>();
+                }
+                children.put(level, node);
+            }
+            return node;
+        }
+
+        private void detach(Node<S> node) {
+            if (node == singleLevel) {
+                singleLevel = null;
+            } else if (node == multiLevel) {
+                multiLevel = null;
+            } else if (children != null) {
+                children.remove(node.level);
+                if (children.isEmpty()) {
+                    children = null;
+                }
+            }
+        }
+
+        private boolean isEmpty() {
+            return subscribers == null && children == null && singleLevel == null && multiLevel == null;
+        }
+
+    }
+
+}
@@ -0,0 +1,73 @@
+package eznetworking.server.cluster;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ClusterDirectory {
+
+    private final ConcurrentHashMap<String, Entry> connections = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, ConcurrentHashMap<String, Integer>> groups = new ConcurrentHashMap<>();
+
+    synchronized void join(String nodeId, String connectionId, int group) {
+        Entry previous = connections.put(connectionId, new Entry(nodeId, group));
+        if (previous != null) {
+            decrement(previous.nodeId, previous.group);
+        }
+        groups.computeIfAbsent(group, (g) -> new ConcurrentHashMap<>()).merge(nodeId, 1, Integer::sum);
+    }
+
+    synchronized void leave(String nodeId, String connectionId) {
+        Entry previous = connections.get(connectionId);
+        if (previous != null && previous.nodeId.equals(nodeId)) {
+            connections.remove(connectionId);
+            decrement(previous.nodeId, previous.group);
+        }
+    }
+
+    synchronized void removeNode(String nodeId) {
+        connections.values().removeIf((e) -> e.nodeId.equals(nodeId));
+        for (Map<String, Integer> nodes : groups.values()) {
+            nodes.remove(nodeId);
+        }
+        groups.values().removeIf(Map::isEmpty);
+    }
+
+    private void decrement(String nodeId, int group) {
+        ConcurrentHashMap<String, Integer> nodes = groups.get(group);
+        if (nodes != null && nodes.computeIfPresent(nodeId, (n, c) -> (c > 1) ? c - 1 : null) == null && nodes.isEmpty()) {
+            groups.remove(group, nodes);
+        }
+    }
+
+    public String getNode(String connectionId) {
+        if (connectionId == null) {
+            throw new IllegalArgumentException();
+        }
+        Entry entry = connections.get(connectionId);
+        return (entry != null) ? entry.nodeId : null;
+    }
+
+    public Set<String> getNodes(int group) {
+        ConcurrentHashMap<String, Integer> nodes = groups.get(group);
+        return (nodes != null) ? Collections.unmodifiableSet(nodes.keySet()) : Collections.emptySet();
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    private static final class Entry {
+
+        private final String nodeId;
+        private final int group;
+
+        private Entry(String nodeId, int group) {
+            this.nodeId = nodeId;
+            this.group = group;
+        }
+
+    }
+
+}
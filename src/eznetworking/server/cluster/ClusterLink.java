@@ -0,0 +1,176 @@
+package eznetworking.server.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import eznetworking.client.Client;
+import eznetworking.transport.TlsConfig;
+
+public class ClusterLink {
+
+    public static final int MAX_QUEUED_MESSAGES = 65536;
+    public static final int MAX_BATCH_MESSAGES = 1024;
+
+    private final String nodeId;
+    private final String host;
+    private final int port;
+    private final Supplier<List<byte[]>> handshake;
+
+    private final LinkedBlockingQueue<byte[]> queue = new LinkedBlockingQueue<>(MAX_QUEUED_MESSAGES);
+    private final LongAdder batchesSent = new LongAdder();
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder messagesDropped = new LongAdder();
+    private final Object offerLock = new Object();
+
+    private volatile TlsConfig tlsConfig;
+    private volatile Client client;
+    private volatile boolean running;
+    private Thread linkThread;
+    private int reconnectInterval = 1000;
+
+    ClusterLink(String nodeId, String host, int port, Supplier<List<byte[]>> handshake) {
+        this.nodeId = nodeId;
+        this.host = host;
+        this.port = port;
+        this.handshake = handshake;
+    }
+
+    boolean offer(byte[] message) {
+        synchronized (offerLock) {
+            if (client != null && queue.offer(message)) {
+                return true;
+            }
+        }
+        messagesDropped.increment();
+        return false;
+    }
+
+    synchronized void start() {
+        if (linkThread == null) {
+            running = true;
+            linkThread = new Thread(this::run);
+            linkThread.setDaemon(true);
+            linkThread.start();
+        }
+    }
+
+    synchronized void stop() throws InterruptedException {
+        if (linkThread != null) {
+            running = false;
+            linkThread.interrupt();
+            linkThread.join();
+            linkThread = null;
+        }
+    }
+
+    private void run() {
+        List<byte[]> batch = new ArrayList<>();
+        try {
+            while (running) {
+                Client current = client;
+                if (current == null) {
+                    if (!connect()) {
+                        Thread.sleep(reconnectInterval);
+                    }
+                    continue;
+                }
+                byte[] first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH_MESSAGES - 1);
+                send(current, batch);
+                batch.clear();
+            }
+        } catch (InterruptedException ex) {
+        } finally {
+            Client current = client;
+            client = null;
+            if (current != null) {
+                current.disconnect();
+            }
+        }
+    }
+
+    private boolean connect() {
+        Client candidate = new Client(host, port);
+        candidate.setTlsConfig(tlsConfig);
+        if (!candidate.connect()) {
+            return false;
+        }
+        List<byte[]> snapshot;
+        synchronized (offerLock) {
+            queue.clear();
+            snapshot = handshake.get();
+            client = candidate;
+        }
+        return send(candidate, snapshot);
+    }
+
+    private boolean send(Client current, List<byte[]> batch) {
+        if (current.sendCustom(ClusterProtocol.FRAME_TYPE, ClusterProtocol.batch(batch))) {
+            batchesSent.increment();
+            messagesSent.add(batch.size());
+            return true;
+        }
+        messagesDropped.add(batch.size());
+        current.disconnect();
+        if (client == current) {
+            client = null;
+        }
+        return false;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public boolean isConnected() {
+        return client != null;
+    }
+
+    public int getQueuedMessages() {
+        return queue.size();
+    }
+
+    public long getBatchesSent() {
+        return batchesSent.sum();
+    }
+
+    public long getMessagesSent() {
+        return messagesSent.sum();
+    }
+
+    public long getMessagesDropped() {
+        return messagesDropped.sum();
+    }
+
+    void setTlsConfig(TlsConfig tlsConfig) {
+        this.tlsConfig = tlsConfig;
+    }
+
+    public int getReconnectInterval() {
+        return reconnectInterval;
+    }
+
+    public void setReconnectInterval(int reconnectInterval) {
+        if (reconnectInterval < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.reconnectInterval = reconnectInterval;
+    }
+
+}
@@ -0,0 +1,296 @@
+package eznetworking.server.cluster;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import eznetworking.packet.Packet;
+import eznetworking.server.RemoteRelay;
+import eznetworking.server.Server;
+import eznetworking.server.connection.Connection;
+import eznetworking.server.events.ClientConnected;
+import eznetworking.server.events.ClientDisconnected;
+import eznetworking.server.events.GroupChanged;
+import eznetworking.transport.TlsConfig;
+import eznetworking.util.Serializer;
+
+public class ClusterNode implements RemoteRelay {
+
+    private final String nodeId;
+    private final Server server;
+    private final Server clusterServer;
+
+    private final ClusterDirectory directory = new ClusterDirectory();
+    private final ConcurrentHashMap<String, ClusterLink> links = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Connection> inboundLinks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Connection, String> inboundNodes = new ConcurrentHashMap<>();
+
+    private final ClientConnected clientConnected = (s, c) -> publish(ClusterProtocol.join(c.getId(), c.getGroup()));
+    private final ClientDisconnected clientDisconnected = (s, c) -> publish(ClusterProtocol.leave(c.getId()));
+    private final GroupChanged groupChanged = (s, c, o, n) -> publish(ClusterProtocol.join(c.getId(), n));
+
+    private volatile TlsConfig tlsConfig;
+    private boolean running;
+
+    public ClusterNode(String nodeId, Server server, int clusterPort) {
+        if (nodeId == null || nodeId.trim().isEmpty() || server == null) {
+            throw new IllegalArgumentException();
+        }
+        this.nodeId = nodeId;
+        this.server = server;
+        this.clusterServer = new Server(clusterPort);
+        this.clusterServer.addCustomReceivedListener((s, c, t, d) -> {
+            if (t == ClusterProtocol.FRAME_TYPE) {
+                received(c, d);
+            }
+        });
+        this.clusterServer.addClientDisconnectedListener((s, c) -> {
+            String peer = inboundNodes.remove(c);
+            if (peer != null && inboundLinks.remove(peer, c)) {
+                directory.removeNode(peer);
+            }
+        });
+    }
+
+    public synchronized boolean start() {
+        if (running || !clusterServer.start()) {
+            return false;
+        }
+        running = true;
+        server.addClientConnectedListener(clientConnected);
+        server.addClientDisconnectedListener(clientDisconnected);
+        server.addGroupChangedListener(groupChanged);
+        server.setRemoteRelay(this);
+        for (ClusterLink link : links.values()) {
+            link.start();
+        }
+        return true;
+    }
+
+    public synchronized boolean stop() {
+        if (!running) {
+            return false;
+        }
+        running = false;
+        server.setRemoteRelay(null);
+        server.removeClientConnectedListener(clientConnected);
+        server.removeClientDisconnectedListener(clientDisconnected);
+        server.removeGroupChangedListener(groupChanged);
+        try {
+            for (ClusterLink link : links.values()) {
+                link.stop();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        clusterServer.stop();
+        for (String peer : inboundLinks.keySet()) {
+            directory.removeNode(peer);
+        }
+        inboundLinks.clear();
+        inboundNodes.clear();
+        return true;
+    }
+
+    public synchronized ClusterLink addPeer(String peerId, String host, int port) {
+        if (peerId == null || peerId.trim().isEmpty() || peerId.equals(nodeId) || host == null || host.trim().isEmpty() || port < 1 || port > 65535) {
+            throw new IllegalArgumentException();
+        }
+        ClusterLink link = new ClusterLink(peerId, host, port, this::handshake);
+        link.setTlsConfig(tlsConfig);
+        if (links.putIfAbsent(peerId, link) != null) {
+            throw new IllegalArgumentException();
+        }
+        if (running) {
+            link.start();
+        }
+        return link;
+    }
+
+    public synchronized boolean removePeer(String peerId) {
+        if (peerId == null) {
+            throw new IllegalArgumentException();
+        }
+        ClusterLink link = links.remove(peerId);
+        if (link == null) {
+            return false;
+        }
+        try {
+            link.stop();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+
+    public boolean sendPacket(Packet packet) {
+        if (packet == null || packet.getDestination() == null || packet.getDestination().isEmpty()) {
+            throw new IllegalArgumentException();
+        }
+        Connection local = server.getClient(packet.getDestination());
+        if (local != null) {
+            return local.sendPacket(packet);
+        }
+        return server.relay(null, packet);
+    }
+
+    public void broadcast(Packet packet) {
+        if (packet == null) {
+            throw new IllegalArgumentException();
+        }
+        byte[] data = Serializer.serialize(packet);
+        deliverAll(data, 0, data.length);
+        publish(ClusterProtocol.broadcast(data, 0, data.length));
+    }
+
+    @Override
+    public boolean relay(String destination, byte[] data, int offset, int length) {
+        String peer = directory.getNode(destination);
+        ClusterLink link = (peer != null) ? links.get(peer) : null;
+        return link != null && link.offer(ClusterProtocol.relay(destination, data, offset, length));
+    }
+
+    @Override
+    public void relayGroup(int group, byte[] data, int offset, int length) {
+        Set<String> peers = directory.getNodes(group);
+        if (!peers.isEmpty()) {
+            byte[] message = ClusterProtocol.relayGroup(group, data, offset, length);
+            for (String peer : peers) {
+                ClusterLink link = links.get(peer);
+                if (link != null) {
+                    link.offer(message);
+                }
+            }
+        }
+    }
+
+    private void publish(byte[] message) {
+        for (ClusterLink link : links.values()) {
+            link.offer(message);
+        }
+    }
+
+    private List<byte[]> handshake() {
+        List<byte[]> messages = new ArrayList<>();
+        messages.add(ClusterProtocol.hello(nodeId));
+        for (Connection c : server) {
+            messages.add(ClusterProtocol.join(c.getId(), c.getGroup()));
+        }
+        return messages;
+    }
+
+    private void received(Connection link, byte[] data) {
+        ByteBuffer messages = ByteBuffer.wrap(data);
+        while (messages.remaining() >= 4) {
+            int length = messages.getInt();
+            if (length < 1 || length > messages.remaining()) {
+                link.disconnect();
+                return;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(data, messages.position(), length).slice();
+            messages.position(messages.position() + length);
+            try {
+                receivedMessage(link, buffer);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex) {
+                link.disconnect();
+                return;
+            }
+        }
+    }
+
+    private void receivedMessage(Connection link, ByteBuffer buffer) {
+        byte kind = buffer.get();
+        String peer = inboundNodes.get(link);
+        if (peer == null && kind != ClusterProtocol.HELLO) {
+            return;
+        }
+        if (kind == ClusterProtocol.HELLO) {
+            peer = ClusterProtocol.readString(buffer);
+            Connection previous = inboundLinks.put(peer, link);
+            if (previous != null && previous != link) {
+                inboundNodes.remove(previous);
+            }
+            inboundNodes.put(link, peer);
+            directory.removeNode(peer);
+        } else if (kind == ClusterProtocol.JOIN) {
+            String connectionId = ClusterProtocol.readString(buffer);
+            directory.join(peer, connectionId, buffer.getInt());
+        } else if (kind == ClusterProtocol.LEAVE) {
+            directory.leave(peer, ClusterProtocol.readString(buffer));
+        } else if (kind == ClusterProtocol.RELAY) {
+            String destination = ClusterProtocol.readString(buffer);
+            Connection target = server.getClient(destination);
+            if (target != null && buffer.hasRemaining()) {
+                target.forwardPacket(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                server.getMetrics().packetRelayed();
+            }
+        } else if (kind == ClusterProtocol.RELAY_GROUP) {
+            int group = buffer.getInt();
+            if (buffer.hasRemaining()) {
+                for (Connection c : server) {
+                    if (c.getGroup() == group) {
+                        c.forwardPacket(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                        server.getMetrics().packetRelayed();
+                    }
+                }
+            }
+        } else if (kind == ClusterProtocol.BROADCAST && buffer.hasRemaining()) {
+            deliverAll(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+    }
+
+    private void deliverAll(byte[] data, int offset, int length) {
+        for (Connection c : server) {
+            c.forwardPacket(data, offset, length);
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public Server getServer() {
+        return server;
+    }
+
+    public Server getClusterServer() {
+        return clusterServer;
+    }
+
+    public ClusterDirectory getDirectory() {
+        return directory;
+    }
+
+    public TlsConfig getTlsConfig() {
+        return tlsConfig;
+    }
+
+    public synchronized void setTlsConfig(TlsConfig tlsConfig) {
+        this.tlsConfig = tlsConfig;
+        clusterServer.setTlsConfig(tlsConfig);
+        for (ClusterLink link : links.values()) {
+            link.setTlsConfig(tlsConfig);
+        }
+    }
+
+    public ClusterLink getPeer(String peerId) {
+        if (peerId == null) {
+            throw new IllegalArgumentException();
+        }
+        return links.get(peerId);
+    }
+
+    public Collection<ClusterLink> getPeers() {
+        return Collections.unmodifiableCollection(links.values());
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+}
@@ -0,0 +1,80 @@
+package eznetworking.server.cluster;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+final class ClusterProtocol {
+
+    static final int FRAME_TYPE = 0x455A4331;
+
+    static final byte HELLO = 1;
+    static final byte JOIN = 2;
+    static final byte LEAVE = 3;
+    static final byte RELAY = 4;
+    static final byte RELAY_GROUP = 5;
+    static final byte BROADCAST = 6;
+
+    private ClusterProtocol() {
+    }
+
+    static byte[] hello(String nodeId) {
+        byte[] name = encode(nodeId);
+        return ByteBuffer.allocate(1 + 2 + name.length).put(HELLO).putShort((short) name.length).put(name).array();
+    }
+
+    static byte[] join(String connectionId, int group) {
+        byte[] name = encode(connectionId);
+        return ByteBuffer.allocate(1 + 2 + name.length + 4).put(JOIN).putShort((short) name.length).put(name).putInt(group).array();
+    }
+
+    static byte[] leave(String connectionId) {
+        byte[] name = encode(connectionId);
+        return ByteBuffer.allocate(1 + 2 + name.length).put(LEAVE).putShort((short) name.length).put(name).array();
+    }
+
+    static byte[] relay(String destination, byte[] data, int offset, int length) {
+        byte[] name = encode(destination);
+        return ByteBuffer.allocate(1 + 2 + name.length + length).put(RELAY).putShort((short) name.length).put(name).put(data, offset, length).array();
+    }
+
+    static byte[] relayGroup(int group, byte[] data, int offset, int length) {
+        return ByteBuffer.allocate(1 + 4 + length).put(RELAY_GROUP).putInt(group).put(data, offset, length).array();
+    }
+
+    static byte[] broadcast(byte[] data, int offset, int length) {
+        return ByteBuffer.allocate(1 + length).put(BROADCAST).put(data, offset, length).array();
+    }
+
+    static byte[] batch(List<byte[]> messages) {
+        int size = 0;
+        for (byte[] message : messages) {
+            size += 4 + message.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] message : messages) {
+            buffer.putInt(message.length).put(message);
+        }
+        return buffer.array();
+    }
+
+    static String readString(ByteBuffer buffer) {
+        int length = buffer.getShort();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String result = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return result;
+    }
+
+    private static byte[] encode(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException();
+        }
+        return bytes;
+    }
+
+}
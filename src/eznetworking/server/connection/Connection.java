@@ -1,18 +1,40 @@
 package eznetworking.server.connection;
 
 import java.net.Socket;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
 
 import eznetworking.client.Client;
+import eznetworking.packet.EncodedFrame;
+import eznetworking.packet.FrameType;
+import eznetworking.packet.Packet;
+import eznetworking.packet.Topic;
 import eznetworking.server.Server;
+import eznetworking.transport.DatagramLink;
+import eznetworking.transport.SocketTransport;
+import eznetworking.transport.Transport;
+import eznetworking.util.TokenBucket;
 
 public class Connection extends Client {
 
     private Server parentServer;
     private int group;
     private PowerLevel powerLevel;
+    private volatile RateLimit rateLimit;
+    private volatile String identity;
+
+    private RateLimit appliedRateLimit;
+    private TokenBucket frameBucket;
+    private TokenBucket byteBucket;
 
     public Connection(Socket socket, Server parentServer) {
-        super(socket);
+        this(new SocketTransport(socket), parentServer);
+    }
+
+    public Connection(Transport transport, Server parentServer) {
+        super(transport, (parentServer != null) ? parentServer.getMetrics().getTotals() : null);
         this.parentServer = parentServer;
         this.group = 1;
         this.powerLevel = PowerLevel.LOW;
@@ -28,16 +50,155 @@ public class Connection extends Client {
         throw new UnsupportedOperationException();
     }
 
+    public boolean announceRelay(boolean available) {
+        return sendControl(FrameType.RELAY_AVAILABLE, new byte[] { (byte) (available ? 1 : 0) });
+    }
+
+    public boolean bindDatagrams(DatagramChannel channel, long token, int port, int mtu) {
+        if (channel == null) {
+            throw new IllegalArgumentException();
+        }
+        setDatagramLink(new DatagramLink(channel, false, token, mtu, null));
+        return sendControl(FrameType.DATAGRAM_BIND, ByteBuffer.allocate(Long.BYTES + 2 * Integer.BYTES).putLong(token).putInt(port).putInt(mtu).array());
+    }
+
+    @Override
+    protected void frameArriving(int type, int length) {
+        if (parentServer == null) {
+            return;
+        }
+        RateLimit limit = parentServer.getEffectiveRateLimit(this);
+        if (limit != appliedRateLimit) {
+            appliedRateLimit = limit;
+            frameBucket = limit.createFrameBucket();
+            byteBucket = limit.createByteBucket();
+        }
+        long wait = 0;
+        if (frameBucket != null) {
+            wait = frameBucket.reserve(1);
+        }
+        if (byteBucket != null) {
+            wait = Math.max(wait, byteBucket.reserve(8L + length));
+        }
+        if (wait > 0) {
+            parentServer.clientThrottled(this, wait);
+            if (getTransport() == null) {
+                return;
+            }
+            long started = System.nanoTime();
+            try {
+                Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            getMetrics().throttled(System.nanoTime() - started);
+        }
+    }
+
+    public boolean forwardPacket(byte[] data, int offset, int length) {
+        return sendFrame(FrameType.PACKET, data, offset, length);
+    }
+
+    public boolean forwardFrame(EncodedFrame frame) {
+        return sendEncoded(frame);
+    }
+
+    public boolean deliver(long epoch, long sequence, byte[] data) {
+        if (data == null) {
+            throw new IllegalArgumentException();
+        }
+        return sendControl(FrameType.DELIVER, ByteBuffer.allocate(2 * Long.BYTES + data.length).putLong(epoch).putLong(sequence).put(data).array());
+    }
+
+    @Override
+    protected void controlReceived(int type, byte[] data) {
+        if (type == FrameType.IDENTIFY && data != null && data.length > 2 + 2 * Long.BYTES) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            int nameLength = buffer.getShort();
+            if (nameLength > 0 && 2 + nameLength + 2 * Long.BYTES == data.length && parentServer != null) {
+                String name = new String(data, 2, nameLength, StandardCharsets.UTF_8);
+                buffer.position(2 + nameLength);
+                parentServer.identify(this, name, buffer.getLong(), buffer.getLong());
+            }
+        } else if (type == FrameType.ACK && data != null && data.length == 2 * Long.BYTES) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            if (parentServer != null) {
+                parentServer.acknowledge(this, buffer.getLong(), buffer.getLong());
+            }
+        } else {
+            super.controlReceived(type, data);
+        }
+    }
+
+    @Override
+    protected boolean topicSubscriptionReceived(String pattern, boolean subscribe) {
+        if (parentServer == null || !Topic.isValidPattern(pattern)) {
+            return false;
+        }
+        return subscribe ? parentServer.subscribe(this, pattern) : parentServer.unsubscribe(this, pattern);
+    }
+
+    @Override
+    protected boolean topicPublished(String topic, byte[] data, int offset, int length) {
+        if (parentServer == null || !Topic.isValidTopic(topic)) {
+            return false;
+        }
+        parentServer.publish(this, topic, data, offset, length);
+        return true;
+    }
+
+    @Override
+    protected boolean relayFrame(String destination, byte[] data, int offset, int length) {
+        return parentServer != null && parentServer.relay(this, destination, data, offset, length);
+    }
+
+    @Override
+    protected boolean relayPacket(Packet packet) {
+        return parentServer != null && parentServer.relay(this, packet);
+    }
+
+    @Override
+    public void datagramReceived(ByteBuffer datagram, SocketAddress sender) {
+        super.datagramReceived(datagram, sender);
+    }
+
     public Server getParentServer() {
         return parentServer;
     }
 
+    @Override
+    protected boolean isServerSide() {
+        return true;
+    }
+
+    @Override
+    public String getIdentity() {
+        return identity;
+    }
+
+    @Override
+    public void setIdentity(String identity) {
+        this.identity = identity;
+    }
+
     public int getGroup() {
         return group;
     }
 
     public void setGroup(int group) {
+        int oldGroup = this.group;
         this.group = group;
+        if (parentServer != null && oldGroup != group) {
+            parentServer.groupChanged(this, oldGroup);
+        }
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(RateLimit rateLimit) {
+        this.rateLimit = rateLimit;
     }
 
     public PowerLevel getPowerLevel() {
@@ -0,0 +1,65 @@
+package eznetworking.server.connection;
+
+import eznetworking.util.TokenBucket;
+
+public final class RateLimit {
+
+    public static final RateLimit UNLIMITED = new RateLimit(0, 0, 0, 0);
+
+    private final long framesPerSecond;
+    private final long bytesPerSecond;
+    private final long frameBurst;
+    private final long byteBurst;
+
+    private RateLimit(long framesPerSecond, long bytesPerSecond, long frameBurst, long byteBurst) {
+        this.framesPerSecond = framesPerSecond;
+        this.bytesPerSecond = bytesPerSecond;
+        this.frameBurst = frameBurst;
+        this.byteBurst = byteBurst;
+    }
+
+    public static RateLimit of(long framesPerSecond, long bytesPerSecond) {
+        return of(framesPerSecond, bytesPerSecond, framesPerSecond, bytesPerSecond);
+    }
+
+    public static RateLimit of(long framesPerSecond, long bytesPerSecond, long frameBurst, long byteBurst) {
+        if (framesPerSecond < 0 || bytesPerSecond < 0 || frameBurst < 0 || byteBurst < 0 || (framesPerSecond > 0 && frameBurst < 1) || (bytesPerSecond > 0 && byteBurst < 1)) {
+            throw new IllegalArgumentException();
+        }
+        return new RateLimit(framesPerSecond, bytesPerSecond, frameBurst, byteBurst);
+    }
+
+    TokenBucket createFrameBucket() {
+        return (framesPerSecond > 0) ? new TokenBucket(framesPerSecond, frameBurst) : null;
+    }
+
+    TokenBucket createByteBucket() {
+        return (bytesPerSecond > 0) ? new TokenBucket(bytesPerSecond, byteBurst) : null;
+    }
+
+    public boolean isUnlimited() {
+        return framesPerSecond == 0 && bytesPerSecond == 0;
+    }
+
+    public long getFramesPerSecond() {
+        return framesPerSecond;
+    }
+
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    public long getFrameBurst() {
+        return frameBurst;
+    }
+
+    public long getByteBurst() {
+        return byteBurst;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RateLimit[framesPerSecond=%d, bytesPerSecond=%d, frameBurst=%d, byteBurst=%d]", framesPerSecond, bytesPerSecond, frameBurst, byteBurst);
+    }
+
+}
@@ -0,0 +1,9 @@
+package eznetworking.server.events;
+
+import eznetworking.packet.FrameBuffer;
+import eznetworking.server.connection.Connection;
+import eznetworking.server.Server;
+
+public interface BytesViewReceived {
+    public void received(Server sender, Connection client, FrameBuffer buffer);
+}
@@ -0,0 +1,8 @@
+package eznetworking.server.events;
+
+import eznetworking.server.connection.Connection;
+import eznetworking.server.Server;
+
+public interface ClientThrottled {
+    public void throttled(Server sender, Connection client, long waitNanos);
+}
@@ -0,0 +1,9 @@
+package eznetworking.server.events;
+
+import eznetworking.packet.FrameBuffer;
+import eznetworking.server.connection.Connection;
+import eznetworking.server.Server;
+
+public interface CustomViewReceived {
+    public void received(Server sender, Connection client, int type, FrameBuffer buffer);
+}
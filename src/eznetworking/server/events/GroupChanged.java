@@ -0,0 +1,8 @@
+package eznetworking.server.events;
+
+import eznetworking.server.connection.Connection;
+import eznetworking.server.Server;
+
+public interface GroupChanged {
+    public void changed(Server sender, Connection client, int oldGroup, int newGroup);
+}
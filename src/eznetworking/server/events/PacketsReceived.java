@@ -0,0 +1,11 @@
+package eznetworking.server.events;
+
+import java.util.List;
+
+import eznetworking.packet.Packet;
+import eznetworking.server.connection.Connection;
+import eznetworking.server.Server;
+
+public interface PacketsReceived {
+    public void received(Server sender, Connection client, List<Packet> packets);
+}
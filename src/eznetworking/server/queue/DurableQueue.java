@@ -0,0 +1,293 @@
+package eznetworking.server.queue;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import eznetworking.packet.Packet;
+import eznetworking.server.connection.Connection;
+import eznetworking.util.SHA256Hash;
+import eznetworking.util.Serializer;
+
+public final class DurableQueue implements Closeable {
+
+    private static final String EPOCH_FILE = "epoch";
+    private static final ExecutorService DELIVERY = Executors.newCachedThreadPool((r) -> {
+        Thread thread = new Thread(r, "DurableQueue-delivery");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String identity;
+    private final QueueConfig config;
+    private final Journal journal;
+    private final long epoch;
+    private final Executor executor;
+
+    private final ArrayDeque<Entry> pending = new ArrayDeque<>();
+    private final ArrayDeque<Entry> inFlight = new ArrayDeque<>();
+    private final ReentrantLock pumpLock = new ReentrantLock();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private long nextSequence;
+    private long acknowledged;
+    private long memoryBytes;
+    private Connection connection;
+    private boolean closed;
+
+    public DurableQueue(String identity, QueueConfig config) throws IOException {
+        this(identity, config, DELIVERY);
+    }
+
+    public DurableQueue(String identity, QueueConfig config, Executor executor) throws IOException {
+        if (identity == null || identity.isEmpty() || config == null || executor == null) {
+            throw new IllegalArgumentException();
+        }
+        this.identity = identity;
+        this.config = config;
+        this.executor = executor;
+        Path directory = config.getDirectory().resolve(SHA256Hash.getHash(identity.getBytes(StandardCharsets.UTF_8)));
+        this.journal = new Journal(directory, config.getSegmentSize());
+        this.epoch = loadEpoch(directory, journal.hasUnread());
+        this.nextSequence = journal.getLastSequence() + 1;
+    }
+
+    public boolean offer(Packet packet) {
+        if (packet == null) {
+            throw new IllegalArgumentException();
+        }
+        byte[] data = Serializer.serialize(packet);
+        return data != null && offer(data) > 0;
+    }
+
+    public long offer(byte[] data) {
+        if (data == null || data.length == 0) {
+            throw new IllegalArgumentException();
+        }
+        long sequence;
+        synchronized (this) {
+            if (closed) {
+                return -1;
+            }
+            sequence = nextSequence;
+            try {
+                if (journal.hasUnread() || memoryBytes + data.length > config.getMemoryLimit()) {
+                    journal.append(sequence, data);
+                } else {
+                    pending.add(new Entry(sequence, data, false));
+                    memoryBytes += data.length;
+                }
+            } catch (IOException ex) {
+                return -1;
+            }
+            nextSequence++;
+        }
+        schedule();
+        return sequence;
+    }
+
+    public void attach(Connection connection, long epoch, long sequence) {
+        if (connection == null) {
+            throw new IllegalArgumentException();
+        }
+        synchronized (this) {
+            requeue();
+            this.connection = connection;
+            if (epoch == this.epoch) {
+                acknowledge(sequence);
+            }
+        }
+        schedule();
+    }
+
+    public void detach(Connection connection) {
+        synchronized (this) {
+            if (this.connection == connection) {
+                this.connection = null;
+                requeue();
+            }
+        }
+    }
+
+    public void acknowledge(long epoch, long sequence) {
+        if (epoch != this.epoch) {
+            return;
+        }
+        synchronized (this) {
+            acknowledge(sequence);
+        }
+        schedule();
+    }
+
+    private void acknowledge(long sequence) {
+        if (sequence <= acknowledged) {
+            return;
+        }
+        acknowledged = Math.min(sequence, nextSequence - 1);
+        release(inFlight);
+        release(pending);
+        try {
+            journal.truncate(acknowledged);
+        } catch (IOException ex) {
+        }
+    }
+
+    private void release(ArrayDeque<Entry> entries) {
+        while (!entries.isEmpty() && entries.peekFirst().sequence <= acknowledged) {
+            memoryBytes -= entries.pollFirst().data.length;
+        }
+    }
+
+    private void requeue() {
+        Iterator<Entry> iterator = inFlight.descendingIterator();
+        while (iterator.hasNext()) {
+            pending.addFirst(iterator.next());
+        }
+        inFlight.clear();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::pump);
+            } catch (RejectedExecutionException ex) {
+                scheduled.set(false);
+            }
+        }
+    }
+
+    private void pump() {
+        scheduled.set(false);
+        while (pumpLock.tryLock()) {
+            try {
+                while (true) {
+                    Connection target;
+                    Entry entry;
+                    synchronized (this) {
+                        target = connection;
+                        entry = (target != null) ? next() : null;
+                    }
+                    if (entry == null) {
+                        break;
+                    }
+                    if (!target.deliver(epoch, entry.sequence, entry.data)) {
+                        detach(target);
+                        break;
+                    }
+                }
+            } finally {
+                pumpLock.unlock();
+            }
+            synchronized (this) {
+                if (connection == null || inFlight.size() >= config.getWindow() || (pending.isEmpty() && !journal.hasUnread())) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private Entry next() {
+        if (closed || inFlight.size() >= config.getWindow()) {
+            return null;
+        }
+        while (true) {
+            Entry entry = pending.pollFirst();
+            if (entry == null) {
+                entry = journal.read();
+                if (entry == null) {
+                    return null;
+                }
+                memoryBytes += entry.data.length;
+            }
+            if (entry.sequence > acknowledged) {
+                inFlight.add(entry);
+                return entry;
+            }
+            memoryBytes -= entry.data.length;
+        }
+    }
+
+    public String getIdentity() {
+        return identity;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public synchronized Connection getConnection() {
+        return connection;
+    }
+
+    public synchronized long size() {
+        return pending.size() + inFlight.size() + journal.getUnread();
+    }
+
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public synchronized long getAcknowledged() {
+        return acknowledged;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        connection = null;
+        requeue();
+        try {
+            for (Entry entry : pending) {
+                if (!entry.journaled) {
+                    journal.append(entry.sequence, entry.data);
+                }
+            }
+        } catch (IOException ex) {
+        }
+        pending.clear();
+        inFlight.clear();
+        memoryBytes = 0;
+        journal.close();
+    }
+
+    private static long loadEpoch(Path directory, boolean recovered) throws IOException {
+        Path path = directory.resolve(EPOCH_FILE);
+        if (recovered && Files.exists(path)) {
+            return ByteBuffer.wrap(Files.readAllBytes(path)).getLong();
+        }
+        long epoch = new SecureRandom().nextLong();
+        Files.createDirectories(directory);
+        Files.write(path, ByteBuffer.allocate(Long.BYTES).putLong(epoch).array());
+        return epoch;
+    }
+
+    static final class Entry {
+
+        private final long sequence;
+        private final byte[] data;
+        private final boolean journaled;
+
+        Entry(long sequence, byte[] data, boolean journaled) {
+            this.sequence = sequence;
+            this.data = data;
+            this.journaled = journaled;
+        }
+
+    }
+
+}
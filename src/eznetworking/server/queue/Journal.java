@@ -0,0 +1,165 @@
+package eznetworking.server.queue;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+final class Journal implements Closeable {
+
+    private static final int RECORD_HEADER = Integer.BYTES + Long.BYTES;
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+
+    private int readIndex;
+    private int readPosition;
+    private long lastSequence;
+    private long unread;
+
+    Journal(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        if (Files.isDirectory(directory)) {
+            recover();
+        }
+    }
+
+    void append(long sequence, byte[] data) throws IOException {
+        Segment tail = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        int size = RECORD_HEADER + data.length;
+        if (tail == null || tail.lastSequence + 1 != sequence || tail.buffer.capacity() - tail.writePosition < size) {
+            tail = openSegment(sequence, Math.max(segmentSize, size + Integer.BYTES));
+        }
+        tail.buffer.putLong(tail.writePosition + Integer.BYTES, sequence);
+        tail.buffer.put(tail.writePosition + RECORD_HEADER, data);
+        tail.buffer.putInt(tail.writePosition, data.length);
+        tail.writePosition += size;
+        tail.lastSequence = sequence;
+        lastSequence = Math.max(lastSequence, sequence);
+        unread++;
+    }
+
+    DurableQueue.Entry read() {
+        while (readIndex < segments.size()) {
+            Segment segment = segments.get(readIndex);
+            if (readPosition < segment.writePosition) {
+                int length = segment.buffer.getInt(readPosition);
+                long sequence = segment.buffer.getLong(readPosition + Integer.BYTES);
+                byte[] data = new byte[length];
+                segment.buffer.get(readPosition + RECORD_HEADER, data);
+                readPosition += RECORD_HEADER + length;
+                unread--;
+                return new DurableQueue.Entry(sequence, data, true);
+            }
+            if (readIndex == segments.size() - 1) {
+                return null;
+            }
+            readIndex++;
+            readPosition = 0;
+        }
+        return null;
+    }
+
+    boolean hasUnread() {
+        return unread > 0;
+    }
+
+    long getUnread() {
+        return unread;
+    }
+
+    void truncate(long acknowledged) throws IOException {
+        while (!segments.isEmpty()) {
+            Segment head = segments.get(0);
+            boolean read = readIndex > 0 || readPosition == head.writePosition;
+            if (head.lastSequence > acknowledged || !read) {
+                return;
+            }
+            segments.remove(0);
+            Files.deleteIfExists(head.path);
+            if (readIndex > 0) {
+                readIndex--;
+            } else {
+                readPosition = 0;
+            }
+        }
+    }
+
+    long getLastSequence() {
+        return lastSequence;
+    }
+
+    @Override
+    public void close() {
+        segments.clear();
+        readIndex = 0;
+        readPosition = 0;
+        unread = 0;
+    }
+
+    private Segment openSegment(long firstSequence, int capacity) throws IOException {
+        Files.createDirectories(directory);
+        Path path = directory.resolve(String.format("%020d", firstSequence) + SUFFIX);
+        Segment segment = new Segment(path, map(path, capacity));
+        segments.add(segment);
+        return segment;
+    }
+
+    private void recover() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path path : stream) {
+                paths.add(path);
+            }
+        }
+        paths.sort(null);
+        for (Path path : paths) {
+            Segment segment = new Segment(path, map(path, (int) Files.size(path)));
+            while (segment.writePosition + RECORD_HEADER <= segment.buffer.capacity()) {
+                int length = segment.buffer.getInt(segment.writePosition);
+                if (length <= 0 || segment.writePosition + RECORD_HEADER + length > segment.buffer.capacity()) {
+                    break;
+                }
+                segment.lastSequence = segment.buffer.getLong(segment.writePosition + Integer.BYTES);
+                segment.writePosition += RECORD_HEADER + length;
+                unread++;
+            }
+            if (segment.writePosition == 0) {
+                Files.deleteIfExists(path);
+                continue;
+            }
+            segments.add(segment);
+            lastSequence = Math.max(lastSequence, segment.lastSequence);
+        }
+    }
+
+    private static MappedByteBuffer map(Path path, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+        private long lastSequence;
+
+        private Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+    }
+
+}
@@ -0,0 +1,50 @@
+package eznetworking.server.queue;
+
+import java.nio.file.Path;
+
+public final class QueueConfig {
+
+    public static final long DEFAULT_MEMORY_LIMIT = 1 << 20;
+    public static final int DEFAULT_SEGMENT_SIZE = 16 << 20;
+    public static final int DEFAULT_WINDOW = 256;
+
+    private final Path directory;
+    private final long memoryLimit;
+    private final int segmentSize;
+    private final int window;
+
+    private QueueConfig(Path directory, long memoryLimit, int segmentSize, int window) {
+        this.directory = directory;
+        this.memoryLimit = memoryLimit;
+        this.segmentSize = segmentSize;
+        this.window = window;
+    }
+
+    public static QueueConfig of(Path directory) {
+        return of(directory, DEFAULT_MEMORY_LIMIT, DEFAULT_SEGMENT_SIZE, DEFAULT_WINDOW);
+    }
+
+    public static QueueConfig of(Path directory, long memoryLimit, int segmentSize, int window) {
+        if (directory == null || memoryLimit < 0 || segmentSize < 4096 || window < 1) {
+            throw new IllegalArgumentException();
+        }
+        return new QueueConfig(directory, memoryLimit, segmentSize, window);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+}
@@ -0,0 +1,173 @@
+package eznetworking.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+public class ChannelTransport implements Transport {
+
+    private final SocketChannel channel;
+    private final Selector readSelector;
+    private final Selector writeSelector;
+
+    private final Object readLock = new Object();
+    private final Object writeLock = new Object();
+
+    private final InputStream inputStream = new ChannelInputStream();
+    private final OutputStream outputStream = new ChannelOutputStream();
+
+    private volatile int readTimeout;
+
+    public ChannelTransport(SocketChannel channel) throws IOException {
+        if (channel == null) {
+            throw new IllegalArgumentException();
+        }
+        this.channel = channel;
+        this.channel.configureBlocking(false);
+        this.readSelector = Selector.open();
+        this.writeSelector = Selector.open();
+        this.channel.register(readSelector, SelectionKey.OP_READ);
+        this.channel.register(writeSelector, SelectionKey.OP_WRITE);
+    }
+
+    public static ChannelTransport connect(SocketAddress address) throws IOException {
+        if (address == null) {
+            throw new IllegalArgumentException();
+        }
+        SocketChannel channel = (address instanceof UnixDomainSocketAddress) ? SocketChannel.open(StandardProtocolFamily.UNIX) : SocketChannel.open();
+        try {
+            channel.connect(address);
+            return new ChannelTransport(channel);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    private int read(ByteBuffer buffer) throws IOException {
+        synchronized (readLock) {
+            while (true) {
+                int count = channel.read(buffer);
+                if (count != 0) {
+                    return count;
+                }
+                int timeout = readTimeout;
+                if (readSelector.select(timeout) == 0 && timeout > 0) {
+                    throw new SocketTimeoutException();
+                }
+                readSelector.selectedKeys().clear();
+            }
+        }
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        synchronized (writeLock) {
+            while (buffer.hasRemaining()) {
+                if (channel.write(buffer) == 0) {
+                    writeSelector.select();
+                    writeSelector.selectedKeys().clear();
+                }
+            }
+        }
+    }
+
+    private class ChannelInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return (read(b, 0, 1) < 0) ? -1 : (b[0] & 0xff);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return (len == 0) ? 0 : ChannelTransport.this.read(ByteBuffer.wrap(b, off, len));
+        }
+    }
+
+    private class ChannelOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ChannelTransport.this.write(ByteBuffer.wrap(b, off, len));
+        }
+    }
+
+    // ---
+
+    @Override
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    @Override
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    @Override
+    public void setReadTimeout(int timeout) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.readTimeout = timeout;
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        try {
+            SocketAddress address = channel.getRemoteAddress();
+            return (address instanceof InetSocketAddress) ? ((InetSocketAddress) address).getAddress().getHostAddress() : null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen() && channel.isConnected();
+    }
+
+    @Override
+    public Socket getSocket() {
+        try {
+            return (channel.getLocalAddress() instanceof InetSocketAddress) ? channel.socket() : null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    public SocketChannel getChannel() {
+        return channel;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            readSelector.close();
+            writeSelector.close();
+        }
+    }
+}
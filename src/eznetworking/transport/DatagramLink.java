@@ -0,0 +1,121 @@
+package eznetworking.transport;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DatagramLink {
+
+    public static final byte HELLO = 0;
+    public static final byte HELLO_ACK = 1;
+    public static final byte UNRELIABLE = 2;
+    public static final byte SEQUENCED = 3;
+
+    public static final int HEADER_SIZE = 1 + Long.BYTES + Long.BYTES;
+    public static final int IP_UDP_OVERHEAD = 48;
+    public static final int DEFAULT_MTU = 1280;
+    public static final int RECEIVE_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    private final DatagramChannel channel;
+    private final boolean ownsChannel;
+    private final long token;
+    private final int mtu;
+
+    private volatile SocketAddress remoteAddress;
+    private volatile boolean acknowledged;
+
+    private final AtomicLong sendSequence = new AtomicLong();
+    private final AtomicLong receiveSequence = new AtomicLong();
+
+    public DatagramLink(DatagramChannel channel, boolean ownsChannel, long token, int mtu, SocketAddress remoteAddress) {
+        if (channel == null || mtu < IP_UDP_OVERHEAD + HEADER_SIZE + 1) {
+            throw new IllegalArgumentException();
+        }
+        this.channel = channel;
+        this.ownsChannel = ownsChannel;
+        this.token = token;
+        this.mtu = mtu;
+        this.remoteAddress = remoteAddress;
+    }
+
+    public boolean send(byte kind, byte[] data) {
+        SocketAddress address = remoteAddress;
+        if (address == null || data.length > getMaxPayloadSize()) {
+            return false;
+        }
+        long sequence = (kind == SEQUENCED) ? sendSequence.incrementAndGet() : 0;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + data.length).put(kind).putLong(token).putLong(sequence).put(data);
+        buffer.flip();
+        try {
+            return channel.send(buffer, address) > 0;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    public boolean acceptSequence(long sequence) {
+        long current;
+        while (sequence > (current = receiveSequence.get())) {
+            if (receiveSequence.compareAndSet(current, sequence)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void close() {
+        if (ownsChannel) {
+            try {
+                channel.close();
+            } catch (IOException ex) {
+            }
+        }
+    }
+
+    public static DatagramChannel open() throws IOException {
+        DatagramChannel channel = DatagramChannel.open();
+        channel.setOption(StandardSocketOptions.SO_RCVBUF, RECEIVE_BUFFER_SIZE);
+        return channel;
+    }
+
+    public static long readToken(ByteBuffer datagram) {
+        return (datagram.remaining() >= HEADER_SIZE) ? datagram.getLong(datagram.position() + 1) : 0;
+    }
+
+    // ---
+
+    public DatagramChannel getChannel() {
+        return channel;
+    }
+
+    public long getToken() {
+        return token;
+    }
+
+    public int getMtu() {
+        return mtu;
+    }
+
+    public int getMaxPayloadSize() {
+        return mtu - IP_UDP_OVERHEAD - HEADER_SIZE;
+    }
+
+    public SocketAddress getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    public void setRemoteAddress(SocketAddress remoteAddress) {
+        this.remoteAddress = remoteAddress;
+    }
+
+    public boolean isAcknowledged() {
+        return acknowledged;
+    }
+
+    public void setAcknowledged(boolean acknowledged) {
+        this.acknowledged = acknowledged;
+    }
+}
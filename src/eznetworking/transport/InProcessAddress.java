@@ -0,0 +1,41 @@
+package eznetworking.transport;
+
+import java.net.SocketAddress;
+
+public final class InProcessAddress extends SocketAddress {
+
+    private static final long serialVersionUID = 6120347826418455193L;
+
+    private final String name;
+
+    private InProcessAddress(String name) {
+        this.name = name;
+    }
+
+    public static InProcessAddress of(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException();
+        }
+        return new InProcessAddress(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return (obj instanceof InProcessAddress) && ((InProcessAddress) obj).name.equals(name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "inproc://" + name;
+    }
+
+}
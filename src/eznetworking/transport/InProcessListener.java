@@ -0,0 +1,89 @@
+package eznetworking.transport;
+
+import java.io.IOException;
+import java.net.BindException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public class InProcessListener implements TransportListener {
+
+    private static final ConcurrentHashMap<InProcessAddress, InProcessListener> listeners = new ConcurrentHashMap<>();
+    private static final InProcessTransport CLOSED = new InProcessTransport(null, false);
+
+    private final InProcessAddress address;
+    private final boolean passByReference;
+    private final LinkedBlockingQueue<InProcessTransport> pending = new LinkedBlockingQueue<>();
+
+    private volatile boolean open = true;
+
+    private InProcessListener(InProcessAddress address, boolean passByReference) {
+        this.address = address;
+        this.passByReference = passByReference;
+    }
+
+    public static InProcessListener bind(InProcessAddress address, boolean passByReference) throws IOException {
+        if (address == null) {
+            throw new IllegalArgumentException();
+        }
+        InProcessListener listener = new InProcessListener(address, passByReference);
+        if (listeners.putIfAbsent(address, listener) != null) {
+            throw new BindException(address + " is already bound");
+        }
+        return listener;
+    }
+
+    static InProcessTransport connect(InProcessAddress address) throws IOException {
+        InProcessListener listener = listeners.get(address);
+        if (listener == null || !listener.open) {
+            throw new ConnectException(address + " is not bound");
+        }
+        InProcessTransport local = new InProcessTransport(address, listener.passByReference);
+        InProcessTransport remote = new InProcessTransport(address, listener.passByReference);
+        local.setPeer(remote);
+        remote.setPeer(local);
+        listener.pending.offer(remote);
+        if (!listener.open) {
+            local.close();
+            throw new ConnectException(address + " is not bound");
+        }
+        return local;
+    }
+
+    @Override
+    public InProcessTransport accept() throws IOException, InterruptedException {
+        InProcessTransport transport = pending.take();
+        if (transport == CLOSED) {
+            pending.offer(CLOSED);
+            throw new SocketException("Listener closed");
+        }
+        return transport;
+    }
+
+    @Override
+    public void close() {
+        if (open) {
+            open = false;
+            listeners.remove(address, this);
+            InProcessTransport transport;
+            while ((transport = pending.poll()) != null) {
+                transport.close();
+            }
+            pending.offer(CLOSED);
+        }
+    }
+
+    public InProcessAddress getAddress() {
+        return address;
+    }
+
+    public boolean isPassByReference() {
+        return passByReference;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+}
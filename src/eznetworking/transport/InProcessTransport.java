@@ -0,0 +1,162 @@
+package eznetworking.transport;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public class InProcessTransport implements Transport {
+
+    private final InProcessAddress address;
+    private final boolean passByReference;
+    private final ConcurrentLinkedQueue<Object> inbound = new ConcurrentLinkedQueue<>();
+
+    private InProcessTransport peer;
+
+    private volatile Thread reader;
+    private volatile boolean open = true;
+    private volatile int readTimeout;
+
+    InProcessTransport(InProcessAddress address, boolean passByReference) {
+        this.address = address;
+        this.passByReference = passByReference;
+    }
+
+    public static InProcessTransport connect(InProcessAddress address) throws IOException {
+        if (address == null) {
+            throw new IllegalArgumentException();
+        }
+        return InProcessListener.connect(address);
+    }
+
+    void setPeer(InProcessTransport peer) {
+        this.peer = peer;
+    }
+
+    public boolean offer(Object message) {
+        if (message == null) {
+            throw new IllegalArgumentException();
+        }
+        InProcessTransport target = peer;
+        if (!open || !target.open) {
+            return false;
+        }
+        target.inbound.offer(message);
+        LockSupport.unpark(target.reader);
+        return true;
+    }
+
+    public Object poll() throws IOException {
+        Object message = inbound.poll();
+        if (message != null) {
+            return message;
+        }
+        int timeout = readTimeout;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        reader = Thread.currentThread();
+        try {
+            while ((message = inbound.poll()) == null) {
+                if (!open || !peer.open) {
+                    message = inbound.poll();
+                    if (message != null) {
+                        return message;
+                    }
+                    throw new EOFException();
+                }
+                if (timeout > 0) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SocketTimeoutException();
+                    }
+                    LockSupport.parkNanos(this, remaining);
+                } else {
+                    LockSupport.park(this);
+                }
+                if (Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                    throw new SocketTimeoutException();
+                }
+            }
+            return message;
+        } finally {
+            reader = null;
+        }
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        throw new IOException("In-process transports exchange frames, not streams");
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        throw new IOException("In-process transports exchange frames, not streams");
+    }
+
+    @Override
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    @Override
+    public void setReadTimeout(int timeout) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.readTimeout = timeout;
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return null;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open && peer != null && peer.open;
+    }
+
+    @Override
+    public void close() {
+        if (open) {
+            open = false;
+            LockSupport.unpark(reader);
+            if (peer != null) {
+                LockSupport.unpark(peer.reader);
+            }
+        }
+    }
+
+    public InProcessAddress getAddress() {
+        return address;
+    }
+
+    public boolean isPassByReference() {
+        return passByReference;
+    }
+
+    public static final class Frame {
+
+        private final int type;
+        private final byte[] data;
+
+        public Frame(int type, byte[] data) {
+            this.type = type;
+            this.data = data;
+        }
+
+        public int getType() {
+            return type;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+    }
+
+}
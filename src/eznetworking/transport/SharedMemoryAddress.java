@@ -0,0 +1,60 @@
+package eznetworking.transport;
+
+import java.net.SocketAddress;
+import java.nio.file.Path;
+
+public final class SharedMemoryAddress extends SocketAddress {
+
+    private static final long serialVersionUID = -4418203711938645570L;
+
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    private final Path path;
+    private final int capacity;
+    private final WaitStrategy waitStrategy;
+
+    private SharedMemoryAddress(Path path, int capacity, WaitStrategy waitStrategy) {
+        this.path = path;
+        this.capacity = capacity;
+        this.waitStrategy = waitStrategy;
+    }
+
+    public static SharedMemoryAddress of(Path path) {
+        return of(path, DEFAULT_CAPACITY, WaitStrategy.PARK);
+    }
+
+    public static SharedMemoryAddress of(Path path, int capacity, WaitStrategy waitStrategy) {
+        if (path == null || capacity < 4096 || Integer.bitCount(capacity) != 1 || waitStrategy == null) {
+            throw new IllegalArgumentException();
+        }
+        return new SharedMemoryAddress(path, capacity, waitStrategy);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return (obj instanceof SharedMemoryAddress) && ((SharedMemoryAddress) obj).path.equals(path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "shm://" + path;
+    }
+
+}
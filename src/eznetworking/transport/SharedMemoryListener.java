@@ -0,0 +1,55 @@
+package eznetworking.transport;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Files;
+
+public class SharedMemoryListener implements TransportListener {
+
+    private final SharedMemoryAddress address;
+    private final ServerSocketChannel channel;
+
+    private SharedMemoryListener(SharedMemoryAddress address, ServerSocketChannel channel) {
+        this.address = address;
+        this.channel = channel;
+    }
+
+    public static SharedMemoryListener bind(SharedMemoryAddress address) throws IOException {
+        if (address == null) {
+            throw new IllegalArgumentException();
+        }
+        ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.bind(UnixDomainSocketAddress.of(address.getPath()));
+            return new SharedMemoryListener(address, channel);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public SharedMemoryTransport accept() throws IOException {
+        return SharedMemoryTransport.accept(channel.accept(), address);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.close();
+            Files.deleteIfExists(address.getPath());
+        }
+    }
+
+    public SharedMemoryAddress getAddress() {
+        return address;
+    }
+
+}
@@ -0,0 +1,98 @@
+package eznetworking.transport;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+final class SharedMemoryRing {
+
+    static final int HEADER_SIZE = 128;
+
+    private static final int HEAD = 0;
+    private static final int PRODUCER_CLOSED = 8;
+    private static final int TAIL = 64;
+    private static final int CONSUMER_CLOSED = 72;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer header;
+    private final ByteBuffer data;
+    private final int capacity;
+    private final int mask;
+
+    private long cachedHead;
+    private long cachedTail;
+
+    SharedMemoryRing(ByteBuffer region, int capacity) {
+        this.header = region.slice(0, HEADER_SIZE);
+        this.data = region.slice(HEADER_SIZE, capacity);
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+    }
+
+    static int sizeOf(int capacity) {
+        return HEADER_SIZE + capacity;
+    }
+
+    int write(byte[] bytes, int offset, int length) {
+        long head = (long) LONGS.getOpaque(header, HEAD);
+        int free = (int) (capacity - (head - cachedTail));
+        if (free < length) {
+            cachedTail = (long) LONGS.getAcquire(header, TAIL);
+            free = (int) (capacity - (head - cachedTail));
+        }
+        int count = Math.min(free, length);
+        if (count > 0) {
+            int index = (int) (head & mask);
+            int first = Math.min(count, capacity - index);
+            data.put(index, bytes, offset, first);
+            if (first < count) {
+                data.put(0, bytes, offset + first, count - first);
+            }
+            LONGS.setRelease(header, HEAD, head + count);
+        }
+        return count;
+    }
+
+    int read(byte[] bytes, int offset, int length) {
+        long tail = (long) LONGS.getOpaque(header, TAIL);
+        int available = (int) (cachedHead - tail);
+        if (available < length) {
+            cachedHead = (long) LONGS.getAcquire(header, HEAD);
+            available = (int) (cachedHead - tail);
+        }
+        int count = Math.min(available, length);
+        if (count > 0) {
+            int index = (int) (tail & mask);
+            int first = Math.min(count, capacity - index);
+            data.get(index, bytes, offset, first);
+            if (first < count) {
+                data.get(0, bytes, offset + first, count - first);
+            }
+            LONGS.setRelease(header, TAIL, tail + count);
+        }
+        return count;
+    }
+
+    boolean isEmpty() {
+        return (long) LONGS.getAcquire(header, HEAD) == (long) LONGS.getOpaque(header, TAIL);
+    }
+
+    void closeProducer() {
+        LONGS.setRelease(header, PRODUCER_CLOSED, 1L);
+    }
+
+    boolean isProducerClosed() {
+        return (long) LONGS.getAcquire(header, PRODUCER_CLOSED) != 0;
+    }
+
+    void closeConsumer() {
+        LONGS.setRelease(header, CONSUMER_CLOSED, 1L);
+    }
+
+    boolean isConsumerClosed() {
+        return (long) LONGS.getAcquire(header, CONSUMER_CLOSED) != 0;
+    }
+
+}
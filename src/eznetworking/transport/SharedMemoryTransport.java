@@ -0,0 +1,269 @@
+package eznetworking.transport;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class SharedMemoryTransport implements Transport {
+
+    static final int MAGIC = 0x455A5348;
+    static final int FILE_HEADER_SIZE = 128;
+
+    private static final int LIVENESS_INTERVAL = 4096;
+
+    private final SocketChannel control;
+    private final Path file;
+    private final boolean owner;
+    private final WaitStrategy waitStrategy;
+    private final SharedMemoryRing inbound;
+    private final SharedMemoryRing outbound;
+
+    private final Object readLock = new Object();
+    private final Object writeLock = new Object();
+
+    private final InputStream inputStream = new RingInputStream();
+    private final OutputStream outputStream = new RingOutputStream();
+
+    private final ByteBuffer probe = ByteBuffer.allocate(1);
+
+    private volatile boolean open = true;
+    private volatile int readTimeout;
+
+    private SharedMemoryTransport(SocketChannel control, Path file, boolean owner, MappedByteBuffer mapped, int capacity, WaitStrategy waitStrategy) throws IOException {
+        this.control = control;
+        this.file = file;
+        this.owner = owner;
+        this.waitStrategy = waitStrategy;
+        int size = SharedMemoryRing.sizeOf(capacity);
+        SharedMemoryRing toClient = new SharedMemoryRing(mapped.slice(FILE_HEADER_SIZE, size), capacity);
+        SharedMemoryRing toServer = new SharedMemoryRing(mapped.slice(FILE_HEADER_SIZE + size, size), capacity);
+        this.inbound = owner ? toServer : toClient;
+        this.outbound = owner ? toClient : toServer;
+        this.control.configureBlocking(false);
+    }
+
+    static SharedMemoryTransport accept(SocketChannel control, SharedMemoryAddress address) throws IOException {
+        Path directory = address.getPath().toAbsolutePath().getParent();
+        Path file = Files.createTempFile(directory, address.getPath().getFileName() + "-", ".ring");
+        try {
+            int capacity = address.getCapacity();
+            MappedByteBuffer mapped = map(file, FILE_HEADER_SIZE + 2L * SharedMemoryRing.sizeOf(capacity));
+            mapped.order(ByteOrder.nativeOrder()).putInt(4, capacity).putInt(0, MAGIC);
+            byte[] name = file.toString().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer hello = ByteBuffer.allocate(4 + name.length).putInt(name.length).put(name);
+            hello.flip();
+            while (hello.hasRemaining()) {
+                control.write(hello);
+            }
+            return new SharedMemoryTransport(control, file, true, mapped, capacity, address.getWaitStrategy());
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(file);
+            control.close();
+            throw ex;
+        }
+    }
+
+    public static SharedMemoryTransport connect(SharedMemoryAddress address) throws IOException {
+        if (address == null) {
+            throw new IllegalArgumentException();
+        }
+        SocketChannel control = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            control.connect(UnixDomainSocketAddress.of(address.getPath()));
+            ByteBuffer length = readFully(control, 4);
+            Path file = Path.of(new String(readFully(control, length.getInt()).array(), StandardCharsets.UTF_8));
+            MappedByteBuffer mapped;
+            try {
+                mapped = map(file, 0);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+            mapped.order(ByteOrder.nativeOrder());
+            int capacity = mapped.getInt(4);
+            if (mapped.getInt(0) != MAGIC || mapped.capacity() != FILE_HEADER_SIZE + 2L * SharedMemoryRing.sizeOf(capacity)) {
+                throw new IOException("Invalid shared memory segment " + file);
+            }
+            return new SharedMemoryTransport(control, file, false, mapped, capacity, address.getWaitStrategy());
+        } catch (IOException | RuntimeException ex) {
+            control.close();
+            throw ex;
+        }
+    }
+
+    private static MappedByteBuffer map(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (size > 0) {
+                channel.write(ByteBuffer.allocate(1), size - 1);
+            }
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+    }
+
+    private static ByteBuffer readFully(SocketChannel channel, int length) throws IOException {
+        if (length < 0 || length > 4096) {
+            throw new IOException("Invalid shared memory handshake");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException();
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private boolean isPeerAlive() {
+        try {
+            probe.clear();
+            return control.read(probe) >= 0;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private int read(byte[] bytes, int offset, int length) throws IOException {
+        synchronized (readLock) {
+            int timeout = readTimeout;
+            long deadline = (timeout > 0) ? System.nanoTime() + timeout * 1_000_000L : 0;
+            for (int iteration = 0; ; iteration++) {
+                int count = inbound.read(bytes, offset, length);
+                if (count > 0) {
+                    return count;
+                }
+                if (!open) {
+                    throw new IOException("Transport closed");
+                }
+                if (inbound.isProducerClosed() && inbound.isEmpty()) {
+                    return -1;
+                }
+                if ((iteration & (LIVENESS_INTERVAL - 1)) == LIVENESS_INTERVAL - 1) {
+                    if (!isPeerAlive()) {
+                        return -1;
+                    }
+                    if (Thread.currentThread().isInterrupted() || (timeout > 0 && System.nanoTime() - deadline > 0)) {
+                        throw new SocketTimeoutException();
+                    }
+                }
+                waitStrategy.idle(iteration);
+            }
+        }
+    }
+
+    private void write(byte[] bytes, int offset, int length) throws IOException {
+        synchronized (writeLock) {
+            for (int iteration = 0; length > 0; iteration++) {
+                if (!open || outbound.isConsumerClosed()) {
+                    throw new IOException("Transport closed");
+                }
+                int count = outbound.write(bytes, offset, length);
+                if (count > 0) {
+                    offset += count;
+                    length -= count;
+                    iteration = -1;
+                    continue;
+                }
+                if ((iteration & (LIVENESS_INTERVAL - 1)) == LIVENESS_INTERVAL - 1 && !isPeerAlive()) {
+                    throw new EOFException();
+                }
+                waitStrategy.idle(iteration);
+            }
+        }
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    @Override
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    @Override
+    public void setReadTimeout(int timeout) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.readTimeout = timeout;
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return null;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (open) {
+            open = false;
+            outbound.closeProducer();
+            inbound.closeConsumer();
+            control.close();
+            if (owner) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    private class RingInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return (SharedMemoryTransport.this.read(single, 0, 1) < 0) ? -1 : (single[0] & 0xFF);
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            return SharedMemoryTransport.this.read(bytes, offset, length);
+        }
+
+    }
+
+    private class RingOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            SharedMemoryTransport.this.write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            SharedMemoryTransport.this.write(bytes, offset, length);
+        }
+
+    }
+
+}
@@ -0,0 +1,58 @@
+package eznetworking.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+
+public class SocketTransport implements Transport {
+
+    private final Socket socket;
+
+    public SocketTransport(Socket socket) {
+        if (socket == null) {
+            throw new IllegalArgumentException();
+        }
+        this.socket = socket;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return socket.getInputStream();
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        return socket.getOutputStream();
+    }
+
+    @Override
+    public int getReadTimeout() throws IOException {
+        return socket.getSoTimeout();
+    }
+
+    @Override
+    public void setReadTimeout(int timeout) throws IOException {
+        socket.setSoTimeout(timeout);
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return (socket.getInetAddress() != null) ? socket.getInetAddress().getHostAddress() : null;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return socket.isConnected() && !socket.isClosed();
+    }
+
+    @Override
+    public Socket getSocket() {
+        return socket;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
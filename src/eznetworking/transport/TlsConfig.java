@@ -0,0 +1,130 @@
+package eznetworking.transport;
+
+import java.io.IOException;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+
+public class TlsConfig {
+
+    private final SSLContext sslContext;
+
+    private String[] protocols;
+    private String[] cipherSuites;
+    private boolean needClientAuth;
+    private int handshakeTimeout = 10000;
+
+    public TlsConfig(SSLContext sslContext) {
+        if (sslContext == null) {
+            throw new IllegalArgumentException();
+        }
+        this.sslContext = sslContext;
+    }
+
+    public SSLEngine createClientEngine(String host, int port) {
+        SSLEngine engine = (host != null) ? sslContext.createSSLEngine(host, port) : sslContext.createSSLEngine();
+        engine.setUseClientMode(true);
+        configure(engine);
+        return engine;
+    }
+
+    public SSLEngine createServerEngine() {
+        SSLEngine engine = sslContext.createSSLEngine();
+        engine.setUseClientMode(false);
+        engine.setNeedClientAuth(needClientAuth);
+        configure(engine);
+        return engine;
+    }
+
+    public TlsTransport wrapClient(Transport transport, String host, int port) throws IOException {
+        return handshake(new TlsTransport(transport, createClientEngine(host, port)));
+    }
+
+    public TlsTransport wrapServer(Transport transport) throws IOException {
+        return handshake(new TlsTransport(transport, createServerEngine()));
+    }
+
+    private TlsTransport handshake(TlsTransport transport) throws IOException {
+        try {
+            transport.handshake(handshakeTimeout);
+            return transport;
+        } catch (IOException | RuntimeException ex) {
+            transport.close();
+            throw ex;
+        }
+    }
+
+    private void configure(SSLEngine engine) {
+        if (protocols != null) {
+            engine.setEnabledProtocols(protocols);
+        }
+        if (cipherSuites != null) {
+            engine.setEnabledCipherSuites(cipherSuites);
+        }
+    }
+
+    // ---
+
+    public SSLContext getSslContext() {
+        return sslContext;
+    }
+
+    public int getSessionCacheSize() {
+        return sslContext.getClientSessionContext().getSessionCacheSize();
+    }
+
+    public void setSessionCacheSize(int sessionCacheSize) {
+        if (sessionCacheSize < 0) {
+            throw new IllegalArgumentException();
+        }
+        sslContext.getClientSessionContext().setSessionCacheSize(sessionCacheSize);
+        sslContext.getServerSessionContext().setSessionCacheSize(sessionCacheSize);
+    }
+
+    public int getSessionTimeout() {
+        return sslContext.getClientSessionContext().getSessionTimeout();
+    }
+
+    public void setSessionTimeout(int seconds) {
+        if (seconds < 0) {
+            throw new IllegalArgumentException();
+        }
+        sslContext.getClientSessionContext().setSessionTimeout(seconds);
+        sslContext.getServerSessionContext().setSessionTimeout(seconds);
+    }
+
+    public String[] getProtocols() {
+        return protocols;
+    }
+
+    public void setProtocols(String[] protocols) {
+        this.protocols = protocols;
+    }
+
+    public String[] getCipherSuites() {
+        return cipherSuites;
+    }
+
+    public void setCipherSuites(String[] cipherSuites) {
+        this.cipherSuites = cipherSuites;
+    }
+
+    public boolean isNeedClientAuth() {
+        return needClientAuth;
+    }
+
+    public void setNeedClientAuth(boolean needClientAuth) {
+        this.needClientAuth = needClientAuth;
+    }
+
+    public int getHandshakeTimeout() {
+        return handshakeTimeout;
+    }
+
+    public void setHandshakeTimeout(int handshakeTimeout) {
+        if (handshakeTimeout < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.handshakeTimeout = handshakeTimeout;
+    }
+}
@@ -0,0 +1,302 @@
+package eznetworking.transport;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLSession;
+
+public class TlsTransport implements Transport {
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final Transport transport;
+    private final SSLEngine engine;
+
+    private final InputStream rawInputStream;
+    private final OutputStream rawOutputStream;
+    private final InputStream inputStream = new TlsInputStream();
+    private final OutputStream outputStream = new TlsOutputStream();
+
+    private final Object readLock = new Object();
+    private final Object writeLock = new Object();
+
+    private ByteBuffer netIn;
+    private ByteBuffer appIn;
+    private ByteBuffer netOut;
+
+    public TlsTransport(Transport transport, SSLEngine engine) throws IOException {
+        if (transport == null || engine == null) {
+            throw new IllegalArgumentException();
+        }
+        this.transport = transport;
+        this.engine = engine;
+        this.rawInputStream = transport.getInputStream();
+        this.rawOutputStream = transport.getOutputStream();
+        SSLSession session = engine.getSession();
+        this.netIn = ByteBuffer.allocate(session.getPacketBufferSize());
+        this.netOut = ByteBuffer.allocate(session.getPacketBufferSize());
+        this.appIn = ByteBuffer.allocate(session.getApplicationBufferSize());
+    }
+
+    public void handshake(int timeout) throws IOException {
+        int previousTimeout = transport.getReadTimeout();
+        long deadline = System.nanoTime() + timeout * 1_000_000L;
+        try {
+            engine.beginHandshake();
+            HandshakeStatus status = engine.getHandshakeStatus();
+            while (status != HandshakeStatus.FINISHED && status != HandshakeStatus.NOT_HANDSHAKING) {
+                if (timeout > 0) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SocketTimeoutException("TLS handshake timed out");
+                    }
+                    transport.setReadTimeout((int) Math.max(1, (remaining + 999_999) / 1_000_000));
+                }
+                switch (status) {
+                case NEED_WRAP:
+                    write(EMPTY);
+                    break;
+                case NEED_UNWRAP:
+                case NEED_UNWRAP_AGAIN:
+                    synchronized (readLock) {
+                        if (unwrap(appIn) < 0) {
+                            throw new EOFException();
+                        }
+                    }
+                    break;
+                case NEED_TASK:
+                    runDelegatedTasks();
+                    break;
+                default:
+                    break;
+                }
+                status = engine.getHandshakeStatus();
+            }
+        } finally {
+            transport.setReadTimeout(previousTimeout);
+        }
+    }
+
+    private int read(ByteBuffer dst) throws IOException {
+        while (true) {
+            int produced = unwrap(dst);
+            if (produced != 0) {
+                return produced;
+            }
+        }
+    }
+
+    private int unwrap(ByteBuffer dst) throws IOException {
+        netIn.flip();
+        SSLEngineResult result;
+        try {
+            result = engine.unwrap(netIn, dst);
+        } finally {
+            netIn.compact();
+        }
+        switch (result.getStatus()) {
+        case BUFFER_UNDERFLOW:
+            int packetBufferSize = engine.getSession().getPacketBufferSize();
+            if (netIn.capacity() < packetBufferSize) {
+                netIn = enlarge(netIn, packetBufferSize);
+            }
+            return (fill() < 0) ? -1 : 0;
+        case BUFFER_OVERFLOW:
+            if (dst != appIn) {
+                throw new SSLException("Destination buffer too small");
+            }
+            appIn = enlarge(appIn, engine.getSession().getApplicationBufferSize() + appIn.position());
+            return 0;
+        case CLOSED:
+            return -1;
+        default:
+            afterOperation(result);
+            return result.bytesProduced();
+        }
+    }
+
+    private int fill() throws IOException {
+        int count = rawInputStream.read(netIn.array(), netIn.arrayOffset() + netIn.position(), netIn.remaining());
+        if (count > 0) {
+            netIn.position(netIn.position() + count);
+        }
+        return count;
+    }
+
+    private void write(ByteBuffer src) throws IOException {
+        synchronized (writeLock) {
+            do {
+                netOut.clear();
+                SSLEngineResult result = engine.wrap(src, netOut);
+                switch (result.getStatus()) {
+                case BUFFER_OVERFLOW:
+                    netOut = enlarge(netOut, engine.getSession().getPacketBufferSize());
+                    continue;
+                case CLOSED:
+                    if (netOut.position() == 0) {
+                        throw new SSLException("Engine closed");
+                    }
+                    break;
+                default:
+                    break;
+                }
+                if (netOut.position() > 0) {
+                    rawOutputStream.write(netOut.array(), netOut.arrayOffset(), netOut.position());
+                }
+                if (result.getHandshakeStatus() == HandshakeStatus.NEED_TASK) {
+                    runDelegatedTasks();
+                }
+            } while (src.hasRemaining());
+            rawOutputStream.flush();
+        }
+    }
+
+    private void afterOperation(SSLEngineResult result) throws IOException {
+        HandshakeStatus status = result.getHandshakeStatus();
+        if (status == HandshakeStatus.NEED_TASK) {
+            runDelegatedTasks();
+            status = engine.getHandshakeStatus();
+        }
+        if (status == HandshakeStatus.NEED_WRAP) {
+            write(EMPTY);
+        }
+    }
+
+    private void runDelegatedTasks() {
+        Runnable task;
+        while ((task = engine.getDelegatedTask()) != null) {
+            task.run();
+        }
+    }
+
+    private static ByteBuffer enlarge(ByteBuffer buffer, int capacity) {
+        ByteBuffer result = ByteBuffer.allocate(Math.max(capacity, buffer.capacity() * 2));
+        buffer.flip();
+        result.put(buffer);
+        return result;
+    }
+
+    // ---
+
+    private class TlsInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return (read(b, 0, 1) < 0) ? -1 : (b[0] & 0xff);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            synchronized (readLock) {
+                if (appIn.position() == 0) {
+                    if (len >= engine.getSession().getApplicationBufferSize()) {
+                        return TlsTransport.this.read(ByteBuffer.wrap(b, off, len));
+                    }
+                    if (TlsTransport.this.read(appIn) < 0) {
+                        return -1;
+                    }
+                }
+                appIn.flip();
+                int count = Math.min(len, appIn.remaining());
+                appIn.get(b, off, count);
+                appIn.compact();
+                return count;
+            }
+        }
+
+        @Override
+        public int available() {
+            synchronized (readLock) {
+                return appIn.position();
+            }
+        }
+    }
+
+    private class TlsOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            TlsTransport.this.write(ByteBuffer.wrap(b, off, len));
+        }
+    }
+
+    // ---
+
+    @Override
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    @Override
+    public int getReadTimeout() throws IOException {
+        return transport.getReadTimeout();
+    }
+
+    @Override
+    public void setReadTimeout(int timeout) throws IOException {
+        transport.setReadTimeout(timeout);
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return transport.getRemoteAddress();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return transport.isOpen() && !engine.isOutboundDone();
+    }
+
+    @Override
+    public Socket getSocket() {
+        return transport.getSocket();
+    }
+
+    public SSLEngine getEngine() {
+        return engine;
+    }
+
+    public SSLSession getSession() {
+        return engine.getSession();
+    }
+
+    public Transport getTransport() {
+        return transport;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            engine.closeOutbound();
+            if (transport.isOpen()) {
+                write(EMPTY);
+            }
+        } catch (IOException ex) {
+        } finally {
+            transport.close();
+        }
+    }
+}
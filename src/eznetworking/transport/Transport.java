@@ -0,0 +1,27 @@
+package eznetworking.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+
+public interface Transport extends Closeable {
+
+    public InputStream getInputStream() throws IOException;
+
+    public OutputStream getOutputStream() throws IOException;
+
+    public int getReadTimeout() throws IOException;
+
+    public void setReadTimeout(int timeout) throws IOException;
+
+    public String getRemoteAddress();
+
+    public boolean isOpen();
+
+    public default Socket getSocket() {
+        return null;
+    }
+
+}
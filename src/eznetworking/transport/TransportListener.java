@@ -0,0 +1,12 @@
+package eznetworking.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+public interface TransportListener extends Closeable {
+
+    public Transport accept() throws IOException, InterruptedException;
+
+    public boolean isOpen();
+
+}
@@ -0,0 +1,24 @@
+package eznetworking.transport;
+
+import java.util.concurrent.locks.LockSupport;
+
+public enum WaitStrategy {
+
+    BUSY_SPIN,
+    PARK;
+
+    private static final int SPINS = 1000;
+    private static final int YIELDS = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    public void idle(int iteration) {
+        if (this == BUSY_SPIN || iteration < SPINS) {
+            Thread.onSpinWait();
+        } else if (iteration < SPINS + YIELDS) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+}
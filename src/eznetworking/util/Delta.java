@@ -0,0 +1,125 @@
+package eznetworking.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+public final class Delta {
+
+    private static final int ALIGNED = 1;
+    private static final int REPLACED = 0;
+    private static final int MERGE_GAP = 4;
+
+    public static byte[] encode(byte[] base, byte[] target) {
+        if (base == null || target == null) {
+            throw new IllegalArgumentException();
+        }
+        int limit = Math.min(base.length, target.length);
+        int prefix = 0;
+        while (prefix < limit && base[prefix] == target[prefix]) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < limit - prefix && base[base.length - 1 - suffix] == target[target.length - 1 - suffix]) {
+            suffix++;
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writeVarInt(output, target.length);
+        writeVarInt(output, prefix);
+        writeVarInt(output, suffix);
+        int end = target.length - suffix;
+        if (base.length != target.length) {
+            output.write(REPLACED);
+            output.write(target, prefix, end - prefix);
+            return output.toByteArray();
+        }
+        output.write(ALIGNED);
+        int position = prefix;
+        while (position < end) {
+            int start = position;
+            while (start < end && base[start] == target[start]) {
+                start++;
+            }
+            if (start == end) {
+                break;
+            }
+            int stop = start + 1;
+            for (int equal = 0; stop < end && equal < MERGE_GAP; stop++) {
+                equal = (base[stop] == target[stop]) ? equal + 1 : 0;
+            }
+            while (stop > start && base[stop - 1] == target[stop - 1]) {
+                stop--;
+            }
+            writeVarInt(output, start - position);
+            writeVarInt(output, stop - start);
+            output.write(target, start, stop - start);
+            position = stop;
+        }
+        return output.toByteArray();
+    }
+
+    public static byte[] apply(byte[] base, byte[] patch) {
+        return apply(base, patch, 0, patch.length);
+    }
+
+    public static byte[] apply(byte[] base, byte[] patch, int offset, int length) {
+        if (base == null || patch == null || offset < 0 || length < 0 || offset + length > patch.length) {
+            throw new IllegalArgumentException();
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(patch, offset, length);
+            int targetLength = readVarInt(buffer);
+            int prefix = readVarInt(buffer);
+            int suffix = readVarInt(buffer);
+            if (targetLength < 0 || prefix < 0 || suffix < 0 || prefix + suffix > targetLength || prefix + suffix > base.length) {
+                return null;
+            }
+            byte[] target = new byte[targetLength];
+            System.arraycopy(base, 0, target, 0, prefix);
+            System.arraycopy(base, base.length - suffix, target, targetLength - suffix, suffix);
+            int end = targetLength - suffix;
+            if (buffer.get() == REPLACED) {
+                buffer.get(target, prefix, end - prefix);
+                return target;
+            }
+            if (base.length != targetLength) {
+                return null;
+            }
+            System.arraycopy(base, prefix, target, prefix, end - prefix);
+            int position = prefix;
+            while (buffer.hasRemaining()) {
+                position += readVarInt(buffer);
+                int count = readVarInt(buffer);
+                if (position + count > end) {
+                    return null;
+                }
+                buffer.get(target, position, count);
+                position += count;
+            }
+            return target;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+            return null;
+        }
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream output, int value) {
+        while ((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = buffer.get() & 0xFF;
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new BufferUnderflowException();
+    }
+
+}
@@ -0,0 +1,113 @@
+package eznetworking.util;
+
+import java.io.Serializable;
+
+public final class Id implements Serializable, Comparable<Id> {
+
+    private static final long serialVersionUID = -2310644771924813586L;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final long high;
+    private final long low;
+
+    private transient String text;
+
+    public Id(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    public static Id parse(CharSequence text) {
+        Id result = parse(text, 0);
+        if (result == null) {
+            throw new IllegalArgumentException();
+        }
+        return result;
+    }
+
+    public static Id parse(CharSequence text, int offset) {
+        if (text == null || offset < 0 || text.length() - offset != 36) {
+            return null;
+        }
+        long high = 0;
+        long low = 0;
+        int digits = 0;
+        for (int i = 0; i < 36; i++) {
+            char c = text.charAt(offset + i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return null;
+                }
+                continue;
+            }
+            int value = Character.digit(c, 16);
+            if (value < 0) {
+                return null;
+            }
+            if (digits++ < 16) {
+                high = (high << 4) | value;
+            } else {
+                low = (low << 4) | value;
+            }
+        }
+        return new Id(high, low);
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    @Override
+    public int compareTo(Id id) {
+        int result = Long.compareUnsigned(high, id.high);
+        return (result != 0) ? result : Long.compareUnsigned(low, id.low);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Id)) {
+            return false;
+        }
+        Id id = (Id) obj;
+        return high == id.high && low == id.low;
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = high ^ low;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        String result = text;
+        if (result == null) {
+            char[] chars = new char[36];
+            render(chars, 0, high >>> 32, 8);
+            chars[8] = '-';
+            render(chars, 9, high >>> 16, 4);
+            chars[13] = '-';
+            render(chars, 14, high, 4);
+            chars[18] = '-';
+            render(chars, 19, low >>> 48, 4);
+            chars[23] = '-';
+            render(chars, 24, low, 12);
+            result = new String(chars);
+            text = result;
+        }
+        return result;
+    }
+
+    private static void render(char[] chars, int offset, long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            chars[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+}
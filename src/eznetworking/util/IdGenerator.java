@@ -0,0 +1,16 @@
+package eznetworking.util;
+
+import java.util.UUID;
+
+public interface IdGenerator {
+
+    public static final IdGenerator TIME_ORDERED = new TimeOrderedIdGenerator();
+
+    public static final IdGenerator RANDOM_UUID = () -> {
+        UUID uuid = UUID.randomUUID();
+        return new Id(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    };
+
+    public Id next();
+
+}
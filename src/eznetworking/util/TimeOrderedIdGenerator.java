@@ -0,0 +1,15 @@
+package eznetworking.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+public final class TimeOrderedIdGenerator implements IdGenerator {
+
+    @Override
+    public Id next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = (System.currentTimeMillis() << 16) | 0x7000L | (random.nextInt() & 0x0FFFL);
+        long low = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new Id(high, low);
+    }
+
+}
@@ -0,0 +1,40 @@
+package eznetworking.util;
+
+public final class TokenBucket {
+
+    private final long ratePerSecond;
+    private final long capacity;
+
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(long ratePerSecond, long capacity) {
+        if (ratePerSecond < 1 || capacity < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public synchronized long reserve(long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException();
+        }
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerSecond / 1e9);
+        lastRefill = now;
+        tokens -= amount;
+        return (tokens >= 0) ? 0 : (long) Math.ceil(-tokens * 1e9 / ratePerSecond);
+    }
+
+    public long getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+}
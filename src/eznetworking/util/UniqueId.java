@@ -1,11 +1,26 @@
 package eznetworking.util;
 
-import java.util.UUID;
-
 public final class UniqueId {
 
+    private static volatile IdGenerator generator = IdGenerator.TIME_ORDERED;
+
     public static String generate() {
-        return UUID.randomUUID().toString();
+        return next().toString();
+    }
+
+    public static Id next() {
+        return generator.next();
+    }
+
+    public static IdGenerator getGenerator() {
+        return generator;
+    }
+
+    public static void setGenerator(IdGenerator generator) {
+        if (generator == null) {
+            throw new IllegalArgumentException();
+        }
+        UniqueId.generator = generator;
     }
 
 }